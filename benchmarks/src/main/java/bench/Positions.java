@@ -0,0 +1,39 @@
+package bench;
+
+import game.Piece;
+import game.Puissance4;
+import player.Computer;
+import player.Player;
+import ia.Niveau;
+
+/**
+ * Jeu de positions fixes utilisées pour mesurer les performances de l'ia.
+ * Une position est décrite par la suite des colonnes jouées depuis le plateau vide (le joueur 1 commence).
+ *
+ * @author Xiumin LIN
+ */
+public final class Positions {
+    public static final String[] OUVERTURES = {"", "33", "3542"};
+    public static final String[] MILIEUX = {"24561545", "10050113", "206066246264"};
+    public static final String[] FINALES = {"6613104230450561364552", "50003124460552652215102524",
+            "4613050650326000145311351452"};
+
+    private Positions() {
+    }
+
+    /**
+     * Crée une partie entre deux ordinateurs et y joue les coups donnés.
+     *
+     * @param coups la suite des colonnes jouées, ex: "3342"
+     * @return la partie dans l'état décrit
+     */
+    public static Puissance4 creer(String coups) {
+        Player p1 = new Computer("Ordi 1", Piece.ROUGE, Niveau.FAIBLE);
+        Player p2 = new Computer("Ordi 2", Piece.JAUNE, Niveau.FAIBLE);
+        Puissance4 game = new Puissance4(p1, p2, true);
+        for(char c : coups.toCharArray()) {
+            game.play(c - '0');
+        }
+        return game;
+    }
+}
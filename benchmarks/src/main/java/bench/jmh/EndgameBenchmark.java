@@ -0,0 +1,61 @@
+package bench.jmh;
+
+import bench.Positions;
+import game.Puissance4;
+import ia.EndgameSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de résolution exacte d'une fin de partie selon le nombre de cases vides. Les positions sont les
+ * débuts d'une même partie, sans coup gagnant ni menace immédiate pendant ses 30 premiers coups.
+ * L'exactitude du solveur est vérifiée par les tests (ia.EndgameSolverTest).
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EndgameBenchmark {
+    private static final String PARTIE = "556401532640455363342235403466";
+
+    @Param({"12", "14", "16", "18", "20", "22"})
+    public int casesVides;
+
+    private Puissance4 game;
+    private EndgameSolver solveur;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = Positions.creer(PARTIE.substring(0, Puissance4.NB_COL * Puissance4.NB_ROW - casesVides));
+        solveur = new EndgameSolver();
+    }
+
+    /**
+     * La table du solveur est vidée avant chaque résolution, sinon seule la 1ère mesure chercherait vraiment
+     */
+    @Setup(Level.Invocation)
+    public void vider() {
+        solveur.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public int[] meilleurCoup() {
+        return solveur.meilleurCoup(game);
+    }
+}
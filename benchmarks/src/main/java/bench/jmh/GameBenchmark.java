@@ -0,0 +1,68 @@
+package bench.jmh;
+
+import game.ModeEvaluation;
+import game.Puissance4;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks des opérations du plateau appelées à chaque noeud de la recherche.
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"COMPLETE", "INCREMENTALE", "TABLE"})
+    public ModeEvaluation mode;
+
+    private int colonne;
+    private int ligne;
+
+    @Setup
+    public void setup(PositionState position) {
+        position.game.setModeEvaluation(mode);
+        // la dernière pièce posée, donc checkIfWinMove mesure le test pour le joueur qui vient de jouer
+        // (sur le plateau vide, la case du milieu est vide et le test renvoie false)
+        int nbCoups = position.game.getNbCoups();
+        colonne = nbCoups == 0 ? Puissance4.NB_COL / 2 : position.coups.charAt(nbCoups - 1) - '0';
+        ligne = position.game.nextEmptyCaseRow(colonne) + 1;
+    }
+
+    @Benchmark
+    public int evaluation(PositionState position) {
+        Puissance4 game = position.game;
+        return game.evaluation(game.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public boolean checkIfWinMove(PositionState position) {
+        return position.game.checkIfWinMove(colonne, ligne);
+    }
+
+    @Benchmark
+    public List<Integer> getAvailablePlace(PositionState position) {
+        return position.game.getAvailablePlace();
+    }
+
+    @Benchmark
+    public Puissance4 copie(PositionState position) {
+        return new Puissance4(position.game);
+    }
+}
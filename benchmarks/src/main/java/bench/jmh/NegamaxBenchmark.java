@@ -0,0 +1,76 @@
+package bench.jmh;
+
+import game.Puissance4;
+import ia.Ia;
+import ia.Moteur;
+import ia.Niveau;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nombre de noeuds explorés par le moteur negamax (PVS et fenêtres d'aspiration) et par alpha-beta séquentiel,
+ * sur le jeu de positions fixes. Chaque mesure est une seule recherche d'une ia neuve (table de transposition vide) :
+ * le compteur "noeuds" est donc exactement celui de cette recherche, toutes les itérations de l'approfondissement
+ * itératif de negamax comprises.
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class NegamaxBenchmark {
+
+    @State(Scope.Thread)
+    public static class Recherche {
+        @Param({"FAIBLE", "MOYEN", "FORT"})
+        public Niveau niveau;
+
+        @Param({"SEQUENTIEL", "NEGAMAX"})
+        public Moteur moteur;
+
+        Ia ia;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            ia = new Ia(niveau);
+            ia.setMoteur(moteur, 1);
+        }
+    }
+
+    /**
+     * Les compteurs rapportés par JMH à côté du temps de la recherche
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Compteurs {
+        public long noeuds;
+
+        @Setup(Level.Iteration)
+        public void vider() {
+            noeuds = 0;
+        }
+    }
+
+    @Benchmark
+    public int[] playAlphaBeta(Recherche etat, PositionState position, Compteurs compteurs) {
+        Puissance4 game = new Puissance4(position.game);
+        int[] result = etat.ia.playAlphaBeta(game, game.getCurrentPlayer());
+        compteurs.noeuds += etat.ia.getNoeuds();
+        return result;
+    }
+}
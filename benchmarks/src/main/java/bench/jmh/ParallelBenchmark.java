@@ -0,0 +1,88 @@
+package bench.jmh;
+
+import bench.Positions;
+import game.Puissance4;
+import ia.Ia;
+import ia.Moteur;
+import ia.Niveau;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accélération des moteurs multi-threads selon le nombre de threads, sur les positions de milieu de partie :
+ * l'accélération est le rapport entre le temps à 1 thread et le temps à N threads.
+ * <p>
+ * Le moteur parallèle (Ia.playAlphaBetaParallele) est mesuré sans table de transposition, pour comparer des
+ * arbres identiques, et son résultat est vérifié avant les mesures : il doit être celui de la recherche
+ * séquentielle. Le moteur Lazy SMP garde sa table, ses threads ne communiquent que par elle ; elle est vidée
+ * avant chaque recherche.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelBenchmark {
+    @Param({"MOYEN", "FORT"})
+    public Niveau niveau;
+
+    @Param({"PARALLELE", "LAZY_SMP"})
+    public Moteur moteur;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"0", "1", "2"})
+    public int index;
+
+    private Puissance4 game;
+    private Ia ia;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = Positions.creer(Positions.MILIEUX[index]);
+        ia = new Ia(niveau);
+        ia.setMoteur(moteur, threads);
+        if(moteur == Moteur.PARALLELE) {
+            ia.setTranspositionTable(null);
+            Ia sequentiel = new Ia(niveau);
+            sequentiel.setTranspositionTable(null);
+            int[] reference = sequentiel.playAlphaBeta(new Puissance4(game), 0, true, game.getCurrentPlayer(),
+                    Integer.MIN_VALUE, Integer.MAX_VALUE);
+            int[] result = ia.playAlphaBetaParallele(new Puissance4(game), game.getCurrentPlayer(), threads);
+            if(!Arrays.equals(result, reference)) {
+                throw new IllegalStateException("le moteur parallèle renvoie " + Arrays.toString(result)
+                        + " au lieu de " + Arrays.toString(reference));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void vider() {
+        if(ia.getTranspositionTable() != null) ia.getTranspositionTable().clear();
+        ia.getEvaluationCache().clear();
+        ia.getMoveOrdering().clear();
+    }
+
+    @Benchmark
+    public int[] playAlphaBeta() {
+        return ia.playAlphaBeta(new Puissance4(game), game.getCurrentPlayer());
+    }
+}
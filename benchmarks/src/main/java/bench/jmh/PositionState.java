@@ -0,0 +1,40 @@
+package bench.jmh;
+
+import bench.Positions;
+import game.Puissance4;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Une position du jeu de positions fixes (bench.Positions), choisie par sa phase de jeu et son indice.
+ *
+ * @author Xiumin LIN
+ */
+@State(Scope.Thread)
+public class PositionState {
+    @Param({"OUVERTURE", "MILIEU", "FINALE"})
+    public String phase;
+
+    @Param({"0", "1", "2"})
+    public int index;
+
+    /**
+     * Les colonnes jouées pour atteindre la position
+     */
+    public String coups;
+    public Puissance4 game;
+
+    @Setup
+    public void setup() {
+        String[] suite = switch(phase) {
+            case "OUVERTURE" -> Positions.OUVERTURES;
+            case "MILIEU" -> Positions.MILIEUX;
+            case "FINALE" -> Positions.FINALES;
+            default -> throw new IllegalArgumentException("Phase inconnue : " + phase);
+        };
+        coups = suite[index];
+        game = Positions.creer(coups);
+    }
+}
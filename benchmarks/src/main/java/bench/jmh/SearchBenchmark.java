@@ -0,0 +1,96 @@
+package bench.jmh;
+
+import game.Puissance4;
+import ia.Ia;
+import ia.Moteur;
+import ia.Niveau;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherches complètes de l'ia sur le jeu de positions fixes, à chaque niveau limité par la profondeur.
+ * Le niveau CHRONO n'est pas mesuré : sa durée est fixée par son temps de réflexion.
+ * <p>
+ * La table de transposition, le cache d'évaluation et l'ordonnancement des coups sont vidés avant chaque recherche,
+ * pour que chaque mesure parte du même état que le 1er coup d'une partie.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @State(Scope.Thread)
+    public static class AlphaBeta {
+        @Param({"FAIBLE", "MOYEN", "FORT"})
+        public Niveau niveau;
+
+        @Param({"SEQUENTIEL", "NEGAMAX"})
+        public Moteur moteur;
+
+        Ia ia;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ia = new Ia(niveau);
+            ia.setMoteur(moteur, 1);
+        }
+
+        @Setup(Level.Invocation)
+        public void vider() {
+            ia.getTranspositionTable().clear();
+            ia.getEvaluationCache().clear();
+            ia.getMoveOrdering().clear();
+        }
+    }
+
+    /**
+     * Minimax n'élague rien : au niveau FORT (7^9 feuilles) une seule recherche dure plusieurs minutes,
+     * seuls les niveaux FAIBLE et MOYEN sont mesurés.
+     */
+    @State(Scope.Thread)
+    public static class MiniMax {
+        @Param({"FAIBLE", "MOYEN"})
+        public Niveau niveau;
+
+        Ia ia;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ia = new Ia(niveau);
+        }
+
+        @Setup(Level.Invocation)
+        public void vider() {
+            ia.getEvaluationCache().clear();
+        }
+    }
+
+    @Benchmark
+    public int[] playAlphaBeta(AlphaBeta etat, PositionState position) {
+        Puissance4 game = position.game;
+        return etat.ia.playAlphaBeta(game, game.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public int[] playMiniMax(MiniMax etat, PositionState position) {
+        Puissance4 game = position.game;
+        return etat.ia.playMiniMax(game, 0, true, game.getCurrentPlayer());
+    }
+}
@@ -0,0 +1,103 @@
+package bench.jmh;
+
+import ia.ArrayTranspositionTable;
+import ia.OffHeapTranspositionTable;
+import ia.TranspositionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La table de transposition sur le tas (tableau de longs) contre la table hors du tas (ByteBuffer direct),
+ * à taille égale. Les clés sont tirées au hasard : chaque accès tombe sur une entrée quelconque de la table,
+ * comme pendant une recherche dont les positions ne tiennent pas dans les caches du processeur.
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TranspositionTableBenchmark {
+    /**
+     * Taille d'une entrée dans les deux tables
+     */
+    private static final int OCTETS_PAR_ENTREE = 16;
+    private static final int NB_CLES = 1 << 16;
+
+    @Param({"TAS", "HORS_TAS"})
+    public String implementation;
+
+    @Param({"16", "256"})
+    public int megaOctets;
+
+    private TranspositionTable table;
+    private final long[] cles = new long[NB_CLES];
+    private int suivante;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if(implementation.equals("TAS")) {
+            int log2Taille = Integer.numberOfTrailingZeros(megaOctets * 1024 * 1024 / OCTETS_PAR_ENTREE);
+            table = new ArrayTranspositionTable(log2Taille, TranspositionTable.Remplacement.PROFONDEUR);
+        } else {
+            table = new OffHeapTranspositionTable(megaOctets, TranspositionTable.Remplacement.PROFONDEUR);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for(int i = 0; i < NB_CLES; i++) {
+            cles[i] = random.nextLong();
+            // la moitié des clés est déjà dans la table : probe trouve une entrée une fois sur deux
+            if(i % 2 == 0) table.store(cles[i], i % 20, TranspositionTable.EXACT, i, i % 7);
+        }
+    }
+
+    private long cle() {
+        suivante = (suivante + 1) & (NB_CLES - 1);
+        return cles[suivante];
+    }
+
+    @Benchmark
+    public long probe() {
+        return table.probe(cle());
+    }
+
+    @Benchmark
+    public void store() {
+        long cle = cle();
+        table.store(cle, (int) cle & 0x1F, TranspositionTable.LOWER, (int) (cle >>> 32), 3);
+    }
+
+    /**
+     * Le motif d'une recherche : une entrée absente est recherchée puis enregistrée
+     */
+    @Benchmark
+    public long probeStore() {
+        long cle = cle();
+        long entree = table.probe(cle);
+        if(entree == 0) table.store(cle, (int) cle & 0x1F, TranspositionTable.UPPER, (int) (cle >>> 32), 3);
+        return entree;
+    }
+
+    /**
+     * Vidage entre deux parties : linéaire sur le tas, en temps constant hors du tas (changement de génération)
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void clear() {
+        table.clear();
+    }
+}
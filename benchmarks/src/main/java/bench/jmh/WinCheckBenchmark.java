@@ -0,0 +1,57 @@
+package bench.jmh;
+
+import game.Puissance4;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Détection de victoire, appelée à chaque noeud de la recherche : checkIfWinMove sur la dernière pièce posée,
+ * donc pour le joueur qui vient de jouer (sur le plateau vide, la case du milieu est vide et le test renvoie false),
+ * et isWinningMove sur chaque colonne, pour le joueur dont c'est le tour. Elle ne doit rien allouer, ce que l'on vérifie avec le profiler gc
+ * (gc.alloc.rate.norm doit valoir 0 octet par opération) :
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar WinCheckBenchmark -prof gc
+ * </pre>
+ *
+ * @author Xiumin LIN
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WinCheckBenchmark {
+    private int colonne;
+    private int ligne;
+    private int suivante;
+
+    @Setup
+    public void setup(PositionState position) {
+        // la dernière pièce posée, ou la colonne du milieu sur le plateau vide
+        int nbCoups = position.game.getNbCoups();
+        colonne = nbCoups == 0 ? Puissance4.NB_COL / 2 : position.coups.charAt(nbCoups - 1) - '0';
+        ligne = position.game.nextEmptyCaseRow(colonne) + 1;
+    }
+
+    @Benchmark
+    public boolean checkIfWinMove(PositionState position) {
+        return position.game.checkIfWinMove(colonne, ligne);
+    }
+
+    @Benchmark
+    public boolean isWinningMove(PositionState position) {
+        suivante = (suivante + 1) % Puissance4.NB_COL;
+        return position.game.isWinningMove(suivante);
+    }
+}
@@ -0,0 +1,238 @@
+package appli;
+
+import game.Piece;
+import game.Puissance4;
+import ia.Ia;
+import ia.Moteur;
+import ia.Niveau;
+import ia.SearchListener;
+import ia.SearchStats;
+import player.Human;
+import player.Player;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Classe main lançant l'ia sans interface graphique : elle est pilotée par des commandes texte, une par ligne,
+ * lues sur l'entrée standard, et répond sur la sortie standard (pour un gestionnaire de tournois externe).
+ * <p>
+ * Commandes :
+ * <ul>
+ *     <li>isready : répond readyok</li>
+ *     <li>newgame : oublie les recherches précédentes (table de transposition, ordonnancement des coups)</li>
+ *     <li>position [startpos] [moves] COUPS : la partie depuis le début, COUPS étant les colonnes jouées
+ *     (0 à 6), ex: "position 3344"</li>
+ *     <li>go depth N : recherche jusqu'à la profondeur N</li>
+ *     <li>go movetime MS : recherche pendant MS millisecondes</li>
+ *     <li>go [infinite] : recherche jusqu'à stop</li>
+ *     <li>stop : arrête la recherche en cours, qui répond avec le coup de sa dernière itération terminée</li>
+ *     <li>quit : arrête la recherche en cours et le moteur</li>
+ * </ul>
+ * Les commandes sont exécutées dans l'ordre : isready et stop répondent tout de suite, les autres attendent
+ * la fin de la recherche en cours (il faut donc envoyer stop avant de changer de position pendant un go infinite).
+ * Une recherche écrit une ligne "info depth D score S nodes N nps X time MS pv C" à chaque itération terminée,
+ * puis "bestmove C" ("bestmove none" si la partie est finie). Les scores sont ceux de l'heuristique, du point de
+ * vue du joueur qui a la main ; une victoire ou une défaite forcée s'écrit "score win" ou "score loss".
+ * </p>
+ * <p>
+ * Usage : java appli.Engine [moteur] [threads], ex: java appli.Engine NEGAMAX
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class Engine implements SearchListener {
+    private final Ia ia;
+    private final Player joueur1 = new Human("Joueur 1", Piece.ROUGE);
+    private final Player joueur2 = new Human("Joueur 2", Piece.JAUNE);
+    private final PrintWriter sortie;
+    /**
+     * Le thread des recherches : la lecture des commandes continue pendant une recherche, pour pouvoir l'arrêter
+     */
+    private final ExecutorService executeur = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ia-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Puissance4 game = new Puissance4(joueur1, joueur2, true);
+    private Future<?> recherche;
+    /**
+     * L'instant (System.nanoTime) où la recherche en cours a commencé
+     */
+    private long debut;
+    private final Moteur moteur;
+    /**
+     * Le joueur pour lequel la dernière recherche a été faite, null si aucune
+     */
+    private Player dernierJoueur;
+
+    public Engine(Moteur moteur, int nbThreads, PrintWriter sortie) {
+        this.moteur = moteur;
+        this.ia = new Ia(Niveau.CHRONO);
+        this.ia.setMoteur(moteur, nbThreads);
+        this.ia.addSearchListener(this);
+        this.sortie = sortie;
+        // la 1ère recherche charge les classes de l'ia et de ses événements JFR (quelques centaines de ms) : elle
+        // est faite tout de suite sur le thread des recherches, pendant que le gestionnaire prépare la partie
+        executeur.execute(() -> {
+            Puissance4 vide = new Puissance4(joueur1, joueur2, true);
+            Ia prechauffage = new Ia(Niveau.FAIBLE);
+            prechauffage.setTranspositionTable(null);
+            prechauffage.playIterativeDeepening(vide, joueur1, 2);
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        Moteur moteur = args.length > 0 ? Moteur.valueOf(args[0]) : Moteur.SEQUENTIEL;
+        int nbThreads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        PrintWriter sortie = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out,
+                StandardCharsets.UTF_8)), true);
+        Engine engine = new Engine(moteur, nbThreads, sortie);
+        BufferedReader entree = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String ligne;
+        while((ligne = entree.readLine()) != null) {
+            if(!engine.executer(ligne.trim())) return;
+        }
+        // fin de l'entrée : la recherche en cours va jusqu'au bout
+        engine.attendreRecherche(false);
+    }
+
+    /**
+     * Exécute une commande.
+     *
+     * @param commande la ligne lue
+     * @return false si la commande demande l'arrêt du moteur
+     */
+    boolean executer(String commande) {
+        String[] mots = commande.split("\\s+");
+        switch(mots[0]) {
+            case "":
+                break;
+            case "isready":
+                sortie.println("readyok");
+                break;
+            case "newgame":
+                attendreRecherche(false);
+                ia.oublierRecherches();
+                game = new Puissance4(joueur1, joueur2, true);
+                break;
+            case "position":
+                attendreRecherche(false);
+                position(mots);
+                break;
+            case "go":
+                attendreRecherche(false);
+                go(mots);
+                break;
+            case "stop":
+                ia.demanderArret();
+                break;
+            case "quit":
+                attendreRecherche(true);
+                return false;
+            default:
+                sortie.println("info string commande inconnue : " + commande);
+        }
+        return true;
+    }
+
+    /**
+     * Rejoue la partie décrite par la commande position depuis le début. Les coups qui suivent un coup invalide
+     * sont ignorés.
+     */
+    private void position(String[] mots) {
+        game = new Puissance4(joueur1, joueur2, true);
+        for(int i = 1; i < mots.length; i++) {
+            if(mots[i].equals("startpos") || mots[i].equals("moves")) continue;
+            for(char c : mots[i].toCharArray()) {
+                if(game.isOver() || c < '0' || c >= '0' + Puissance4.NB_COL || !game.play(c - '0')) {
+                    sortie.println("info string coup invalide : " + c);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lance la recherche décrite par la commande go sur le thread des recherches.
+     */
+    private void go(String[] mots) {
+        int profondeur = Puissance4.NB_COL * Puissance4.NB_ROW;
+        long tempsMs = 0;
+        try {
+            for(int i = 1; i + 1 < mots.length; i += 2) {
+                if(mots[i].equals("depth")) profondeur = Integer.parseInt(mots[i + 1]);
+                else if(mots[i].equals("movetime")) tempsMs = Long.parseLong(mots[i + 1]);
+            }
+        } catch(NumberFormatException e) {
+            sortie.println("info string commande invalide : " + String.join(" ", mots));
+            return;
+        }
+        if(game.isOver()) {
+            sortie.println("bestmove none");
+            return;
+        }
+        Puissance4 copie = new Puissance4(game);
+        int[] libres = new int[Puissance4.NB_COL];
+        game.getAvailableMoves(libres);
+        int profondeurMax = Math.max(1, profondeur);
+        long temps = tempsMs;
+        Player p = copie.getCurrentPlayer();
+        // alpha-beta range ses scores du point de vue du joueur qui cherche (negamax de celui qui a la main) :
+        // la table ne sert plus lorsque l'autre joueur cherche
+        if(moteur != Moteur.NEGAMAX && dernierJoueur != null && p != dernierJoueur) ia.oublierRecherches();
+        dernierJoueur = p;
+        ia.annulerDemandeArret();
+        ia.getTranspositionTable().nouvelleRecherche();
+        recherche = executeur.submit(() -> {
+            ia.resetStats();
+            debut = System.nanoTime();
+            int[] resultat = temps > 0 ? ia.playIterativeDeepening(copie, p, temps, profondeurMax)
+                    : ia.playIterativeDeepening(copie, p, profondeurMax);
+            // arrêtée avant la fin de la 1ère itération : on joue le 1er coup possible plutôt que rien
+            int col = resultat != null ? resultat[0] : libres[0];
+            sortie.println("bestmove " + col);
+        });
+    }
+
+    /**
+     * Attend la fin de la recherche en cours, s'il y en a une : les commandes sont exécutées dans l'ordre,
+     * une commande reçue pendant une recherche ne s'applique qu'une fois son coup écrit.
+     *
+     * @param arreter true pour demander à la recherche de s'arrêter tout de suite
+     */
+    private void attendreRecherche(boolean arreter) {
+        if(recherche == null) return;
+        if(arreter) ia.demanderArret();
+        try {
+            recherche.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            sortie.println("info string la recherche a échoué : " + e.getCause());
+        }
+        recherche = null;
+    }
+
+    @Override
+    public void onSearch(SearchStats stats) {
+        // les recherches du moteur ne passent pas par Ia.rechercher
+    }
+
+    @Override
+    public void onIteration(int profondeur, int colonne, int score, long noeuds) {
+        long dureeMs = Math.max(1, (System.nanoTime() - debut) / 1_000_000L);
+        String texteScore = Ia.estVictoire(score) ? "win" : Ia.estDefaite(score) ? "loss" : String.valueOf(score);
+        sortie.println("info depth " + profondeur + " score " + texteScore + " nodes " + noeuds
+                + " nps " + noeuds * 1000 / dureeMs + " time " + dureeMs + " pv " + colonne);
+    }
+}
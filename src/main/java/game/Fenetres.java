@@ -0,0 +1,58 @@
+package game;
+
+/**
+ * Table statique des 69 "fenêtres" du plateau, c'est-à-dire des 69 rangées de 4 cases où un joueur peut aligner
+ * ses pièces (24 horizontales, 21 verticales et 12 par diagonale). Les cases sont désignées par leur indice
+ * dans le bitboard de Puissance4 (col * (NB_ROW + 1) + hauteur depuis le bas).
+ *
+ * @author Xiumin LIN
+ */
+final class Fenetres {
+    private static final int BITS_PAR_COL = Puissance4.NB_ROW + 1;
+    static final int NB_FENETRES = 69;
+    /**
+     * MASQUES[f] : le bitboard des 4 cases de la fenêtre f
+     */
+    static final long[] MASQUES = new long[NB_FENETRES];
+    /**
+     * PAR_CASE[i] : les fenêtres qui contiennent la case d'indice i du bitboard
+     */
+    static final int[][] PAR_CASE = new int[Puissance4.NB_COL * BITS_PAR_COL][];
+
+    static {
+        // directions (colonne, hauteur) : horizontal, vertical, diagonal "/" et diagonal "\"
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int[] nbParCase = new int[PAR_CASE.length];
+        int f = 0;
+        for(int[] d : directions) {
+            for(int col = 0; col < Puissance4.NB_COL; col++) {
+                for(int h = 0; h < Puissance4.NB_ROW; h++) {
+                    int colFin = col + 3 * d[0];
+                    int hFin = h + 3 * d[1];
+                    if(colFin >= Puissance4.NB_COL || hFin < 0 || hFin >= Puissance4.NB_ROW) continue;
+                    for(int k = 0; k < 4; k++) {
+                        int index = (col + k * d[0]) * BITS_PAR_COL + h + k * d[1];
+                        MASQUES[f] |= 1L << index;
+                        nbParCase[index]++;
+                    }
+                    f++;
+                }
+            }
+        }
+        for(int i = 0; i < PAR_CASE.length; i++) {
+            PAR_CASE[i] = new int[nbParCase[i]];
+            nbParCase[i] = 0;
+        }
+        for(f = 0; f < NB_FENETRES; f++) {
+            long masque = MASQUES[f];
+            while(masque != 0) {
+                int index = Long.numberOfTrailingZeros(masque);
+                PAR_CASE[index][nbParCase[index]++] = f;
+                masque &= masque - 1;
+            }
+        }
+    }
+
+    private Fenetres() {
+    }
+}
@@ -0,0 +1,22 @@
+package game;
+
+/**
+ * Enumerate the different ways Puissance4 can compute the heuristic of the board
+ *
+ * @author Xiumin LIN
+ */
+public enum ModeEvaluation {
+    /**
+     * Parcours complet des colonnes, lignes et diagonales à chaque évaluation
+     */
+    COMPLETE,
+    /**
+     * Score des 69 fenêtres de 4 cases, mis à jour à chaque pièce posée ou retirée : l'évaluation est en O(1)
+     */
+    INCREMENTALE,
+    /**
+     * Score des 69 fenêtres de 4 cases lu dans une table précalculée, selon les pièces de chaque joueur et les cases
+     * vides jouables de la fenêtre : même intention que COMPLETE, sans listes ni switch
+     */
+    TABLE
+}
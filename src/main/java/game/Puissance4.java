@@ -5,6 +5,7 @@ import player.Player;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Classe répresentant le jeu Puissance 4
@@ -15,33 +16,108 @@ public class Puissance4 {
     public static final int NB_ROW = 6; // = y
     public static final int NB_COL = 7; // = x
     private static final int WIN_NUMBER = 4;
+    /**
+     * Nombre de bits réservés à une colonne dans un bitboard : NB_ROW cases + 1 bit sentinelle toujours à 0.
+     * La ligne sentinelle empêche un alignement de "déborder" d'une colonne sur la suivante lors des décalages.
+     */
+    private static final int BITS_PAR_COL = NB_ROW + 1;
+    /**
+     * Masque de la ligne du bas (un bit par colonne).
+     */
+    private static final long BOTTOM_MASK = bottomMask();
+    /**
+     * Masque de toutes les cases jouables du plateau (sans les bits sentinelles).
+     */
+    private static final long BOARD_MASK = BOTTOM_MASK * ((1L << NB_ROW) - 1);
+    /**
+     * Masque des cases de la colonne 0, décalé de col * BITS_PAR_COL pour la colonne col.
+     */
+    private static final long COLONNE_MASK = (1L << NB_ROW) - 1;
+    /**
+     * Clés de Zobrist : ZOBRIST[0] pour les pièces du joueur 1, ZOBRIST[1] pour celles du joueur 2,
+     * indexées par bit du bitboard. La graine est fixe pour que le hash d'une position soit le même
+     * d'une exécution à l'autre.
+     */
+    private static final long[][] ZOBRIST = new long[2][NB_COL * BITS_PAR_COL];
+    /**
+     * Clé de Zobrist ajoutée au hash lorsque c'est au joueur 2 de jouer
+     */
+    private static final long ZOBRIST_TOUR_P2;
+    /**
+     * MIROIR[i] : l'indice du bitboard de la case symétrique de la case i par rapport à la colonne du milieu
+     */
+    private static final int[] MIROIR = new int[NB_COL * BITS_PAR_COL];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x50554953414E4345L);
+        for(long[] cles : ZOBRIST) {
+            for(int i = 0; i < cles.length; i++) {
+                cles[i] = random.nextLong();
+            }
+        }
+        ZOBRIST_TOUR_P2 = random.nextLong();
+        for(int i = 0; i < MIROIR.length; i++) {
+            MIROIR[i] = miroir(i / BITS_PAR_COL) * BITS_PAR_COL + i % BITS_PAR_COL;
+        }
+    }
+
     private boolean isP1Turn;
     private final boolean haveHumanPlayer;
     private final Player player1;
     private final Player player2;
 
     /**
-     * Matrice contenant les différents cases du jeu.
-     * Piece[x] correspond à la liste des cases sur la colonne x.
+     * Le plateau est stocké sous forme de deux bitboards (un par joueur), chaque bit à 1 indiquant
+     * une pièce du joueur. La case (col, row) correspond au bit col * BITS_PAR_COL + (NB_ROW - 1 - row),
+     * les bits d'une colonne partent donc du bas du plateau.
      * <p>&emsp
-     * colonne (x)            <br/>&ensp
-     *    0 1 2 3 4 5 6            <br/>
-     * 0  _ _ _ _ _ _ _            <br/>
-     * 1  _ _ _ _ _ _ _            <br/>
-     * 2  _ _ _ _ _ _ _  ligne (y) <br/>
-     * 3  _ _ _ _ _ _ _            <br/>
-     * 4  _ _ _ _ _ _ _            <br/>
-     * 5  _ _ _ _ _ _ _            <br/>
+     * colonne (x)                            <br/>&ensp
+     *    0  1  2  3  4  5  6                  <br/>
+     * .  6 13 20 27 34 41 48  (sentinelle)    <br/>
+     * 0  5 12 19 26 33 40 47                  <br/>
+     * 1  4 11 18 25 32 39 46                  <br/>
+     * 2  3 10 17 24 31 38 45  ligne (y)       <br/>
+     * 3  2  9 16 23 30 37 44                  <br/>
+     * 4  1  8 15 22 29 36 43                  <br/>
+     * 5  0  7 14 21 28 35 42                  <br/>
      * </p>
      */
-    private final Piece[][] plateau;
+    private long bitboardP1;
+    private long bitboardP2;
+    /**
+     * Nombre de pièces déjà posées dans chaque colonne
+     */
+    private final int[] hauteurs;
+    /**
+     * Historique des colonnes jouées (une pile), permet d'annuler les coups avec undo()
+     */
+    private final int[] historique;
+    private int nbCoups;
+    /**
+     * Hash de Zobrist de la position, mis à jour à chaque pièce posée ou retirée et à chaque changement de tour
+     */
+    private long hash;
+    /**
+     * Hash de Zobrist de la position symétrique (le plateau vu dans un miroir), tenu à jour avec hash
+     */
+    private long hashMiroir;
+    /**
+     * Nombre de pièces de chaque joueur dans chacune des 69 fenêtres de 4 cases (cf. Fenetres),
+     * compteursFenetres[0] pour le joueur 1 et compteursFenetres[1] pour le joueur 2
+     */
+    private final int[][] compteursFenetres;
+    /**
+     * Somme des scores des fenêtres pour chaque joueur, tenue à jour avec compteursFenetres
+     */
+    private final int[] scoresFenetres;
+    private ModeEvaluation modeEvaluation;
 
     private Player winner;
     private boolean isGameOver;
 
     /**
      * Constructeur par défaut de la classe Puissance4.
-     * A la création, tous les pièces sur le plateau ont pour valeur Piece.EMPTY
+     * A la création, tous les cases du plateau sont vides.
      *
      * @param p1          le joueur 1
      * @param p2          le joueur 2
@@ -53,12 +129,16 @@ public class Puissance4 {
         this.player2 = p2;
         this.haveHumanPlayer = (player1 instanceof Human || player2 instanceof Human);
         this.winner = null;
-        plateau = new Piece[NB_COL][NB_ROW]; // [x][y]
-        for(int x = 0; x < NB_COL; x++) {
-            for(int y = 0; y < NB_ROW; y++) {
-                plateau[x][y] = Piece.EMPTY;
-            }
-        }
+        this.bitboardP1 = 0L;
+        this.bitboardP2 = 0L;
+        this.hauteurs = new int[NB_COL];
+        this.historique = new int[NB_COL * NB_ROW];
+        this.nbCoups = 0;
+        this.hash = startWithP1 ? 0L : ZOBRIST_TOUR_P2;
+        this.hashMiroir = hash;
+        this.compteursFenetres = new int[2][Fenetres.NB_FENETRES];
+        this.scoresFenetres = new int[2];
+        this.modeEvaluation = ModeEvaluation.COMPLETE;
         this.isGameOver = false;
     }
 
@@ -68,16 +148,83 @@ public class Puissance4 {
      * @param original l'état du jeu original
      */
     public Puissance4(Puissance4 original) {
-        this(original.player1, original.player2, original.isP1Turn);
-        for(int x = 0; x < NB_COL; x++) {
-            for(int y = 0; y < NB_ROW; y++) {
-                plateau[x][y] = original.plateau[x][y];
-            }
-        }
+        this.isP1Turn = original.isP1Turn;
+        this.player1 = original.player1;
+        this.player2 = original.player2;
+        this.haveHumanPlayer = original.haveHumanPlayer;
+        this.bitboardP1 = original.bitboardP1;
+        this.bitboardP2 = original.bitboardP2;
+        this.hauteurs = original.hauteurs.clone();
+        this.historique = original.historique.clone();
+        this.nbCoups = original.nbCoups;
+        this.hash = original.hash;
+        this.hashMiroir = original.hashMiroir;
+        this.compteursFenetres = new int[][]{original.compteursFenetres[0].clone(), original.compteursFenetres[1].clone()};
+        this.scoresFenetres = original.scoresFenetres.clone();
+        this.modeEvaluation = original.modeEvaluation;
         this.winner = original.winner;
         this.isGameOver = original.isGameOver;
     }
 
+    /**
+     * @return le masque de la ligne du bas, un bit à 1 par colonne
+     */
+    private static long bottomMask() {
+        long mask = 0L;
+        for(int col = 0; col < NB_COL; col++) {
+            mask |= 1L << (col * BITS_PAR_COL);
+        }
+        return mask;
+    }
+
+    /**
+     * Retourne le bit correspondant à la case (col, row) dans un bitboard.
+     *
+     * @param col la colonne de la case
+     * @param row la ligne de la case
+     * @return un long dont seul le bit de la case est à 1
+     */
+    private static long cellBit(int col, int row) {
+        return 1L << (col * BITS_PAR_COL + (NB_ROW - 1 - row));
+    }
+
+    /**
+     * Indique si le bitboard donné contient une rangée de 4 pièces alignées.
+     * Chaque direction se vérifie avec deux décalages : le 1er réduit les paires de pièces adjacentes,
+     * le 2nd réduit ces paires en rangées de 4.
+     *
+     * @param bitboard les pièces d'un joueur
+     * @return true si le bitboard contient au moins une rangée de 4 pièces
+     */
+    private static boolean hasAlignment(long bitboard) {
+        // horizontal
+        long m = bitboard & (bitboard >> BITS_PAR_COL);
+        if((m & (m >> (2 * BITS_PAR_COL))) != 0) return true;
+        // diagonal "\" (la hauteur diminue quand la colonne augmente)
+        m = bitboard & (bitboard >> (BITS_PAR_COL - 1));
+        if((m & (m >> (2 * (BITS_PAR_COL - 1)))) != 0) return true;
+        // diagonal "/" (la hauteur augmente avec la colonne)
+        m = bitboard & (bitboard >> (BITS_PAR_COL + 1));
+        if((m & (m >> (2 * (BITS_PAR_COL + 1)))) != 0) return true;
+        // vertical
+        m = bitboard & (bitboard >> 1);
+        return (m & (m >> 2)) != 0;
+    }
+
+    /**
+     * Retourne la pièce présente à la case (col, row), la case doit être dans les limites du plateau.
+     *
+     * @param col la colonne de la case
+     * @param row la ligne de la case
+     * @return la pièce du joueur qui occupe la case, ou Piece.EMPTY si elle est vide
+     */
+    private Piece getPiece(int col, int row) {
+        long bit = cellBit(col, row);
+        if((bitboardP1 & bit) != 0) return player1.getPiece();
+        if((bitboardP2 & bit) != 0) return player2.getPiece();
+        return Piece.EMPTY;
+    }
+
     /**
      * Indique si une pièce est déjà present à la position donnée en param
      *
@@ -87,7 +234,7 @@ public class Puissance4 {
      */
     public boolean pieceIsPresent(int col, int row) {
         if(isOutOfLimitBoard(col, row)) return false;
-        return plateau[col][row] != Piece.EMPTY;
+        return ((bitboardP1 | bitboardP2) & cellBit(col, row)) != 0;
     }
 
     /**
@@ -96,17 +243,25 @@ public class Puissance4 {
     public List<Integer> getAvailablePlace() {
         List<Integer> list = new ArrayList<>();
         for(int col = 0; col < NB_COL; col++) {
-            for(Piece p : plateau[col]) {
-                if(p == Piece.EMPTY) {
-                    list.add(col);
-                    break;
-                }
-
-            }
+            if(hauteurs[col] < NB_ROW) list.add(col);
         }
         return list;
     }
 
+    /**
+     * Remplit le tableau donné avec l'indice des colonnes dont on peut placer des pièces, sans allouer de liste.
+     *
+     * @param coups un tableau d'au moins NB_COL cases
+     * @return le nombre de colonnes placées dans le tableau
+     */
+    public int getAvailableMoves(int[] coups) {
+        int n = 0;
+        for(int col = 0; col < NB_COL; col++) {
+            if(hauteurs[col] < NB_ROW) coups[n++] = col;
+        }
+        return n;
+    }
+
     /**
      * Cherche la prochaine indice de la ligne qui un emplacement vide (sans piece)
      *
@@ -114,12 +269,8 @@ public class Puissance4 {
      * @return -1 si la colonne n'a plus de case vide, sinon retourne l'indice de la ligne disponible
      */
     public int nextEmptyCaseRow(int col) {
-        int row = NB_ROW - 1;
-        for(; row >= 0; row--) {
-            if(!pieceIsPresent(col, row)) break;
-        }
-        if(row < 0) return -1;
-        return row;
+        if(isOutOfLimitCol(col) || hauteurs[col] >= NB_ROW) return -1;
+        return NB_ROW - 1 - hauteurs[col];
     }
 
     /**
@@ -131,21 +282,68 @@ public class Puissance4 {
      * @param col la colonne de la pièce à poser
      */
     public void placePiece(int col) {
+        play(col);
+    }
+
+    /**
+     * Joue un coup à la colonne indiquée (cf. placePiece) et l'empile dans l'historique
+     * pour qu'il puisse être annulé par undo().
+     *
+     * @param col la colonne de la pièce à poser
+     * @return true si la pièce a bien été posée, false si la colonne est pleine ou invalide
+     */
+    public boolean play(int col) {
         // Cherche l'indice de la ligne qui un emplacement vide (sans piece)
         int row = nextEmptyCaseRow(col);
         boolean setIsValid = setPieceInPlateau(col, row);
-        if(!setIsValid) return;
+        if(!setIsValid) return false;
+        historique[nbCoups++] = col;
 
         if(checkIfWinMove(col, row)) {
             this.winner = isP1Turn ? player1 : player2;
             this.isGameOver = true;
-        } else if(getAvailablePlace().isEmpty()) {
+        } else if(((bitboardP1 | bitboardP2) & BOARD_MASK) == BOARD_MASK) {
             this.isGameOver = true; // S'il ne reste plus de place, le jeu se termine sur une egalité
         } else nextTurn();
+        return true;
+    }
+
+    /**
+     * Annule le dernier coup joué par play() ou placePiece() : retire la pièce, efface le vainqueur
+     * éventuel et redonne la main au joueur qui avait joué ce coup.
+     *
+     * @return true si un coup a été annulé, false si l'historique est vide
+     */
+    public boolean undo() {
+        if(nbCoups == 0) return false;
+        int col = historique[--nbCoups];
+        hauteurs[col]--;
+        int index = col * BITS_PAR_COL + hauteurs[col];
+        long bit = 1L << index;
+        int joueur = (bitboardP1 & bit) != 0 ? 0 : 1;
+        hash ^= ZOBRIST[joueur][index];
+        hashMiroir ^= ZOBRIST[joueur][MIROIR[index]];
+        majFenetres(joueur, index, -1);
+        bitboardP1 &= ~bit;
+        bitboardP2 &= ~bit;
+        // Le coup qui termine la partie ne passe pas au tour suivant (cf. play)
+        if(isGameOver) {
+            this.isGameOver = false;
+            this.winner = null;
+        } else nextTurn();
+        return true;
+    }
+
+    /**
+     * @return le nombre de coups joués depuis le début de la partie
+     */
+    public int getNbCoups() {
+        return nbCoups;
     }
 
     /**
      * Place une pièce à l'emplacement indiqué en param.
+     * La case doit être celle renvoyée par nextEmptyCaseRow pour que la hauteur de la colonne reste cohérente.
      *
      * @param col la colonne de la piece
      * @param row la ligne de la piece
@@ -153,7 +351,14 @@ public class Puissance4 {
      */
     public boolean setPieceInPlateau(int col, int row) {
         if(isOutOfLimitBoard(col, row)) return false;
-        plateau[col][row] = isP1Turn ? player1.getPiece() : player2.getPiece();
+        int index = col * BITS_PAR_COL + (NB_ROW - 1 - row);
+        long bit = 1L << index;
+        if(isP1Turn) bitboardP1 |= bit;
+        else bitboardP2 |= bit;
+        hash ^= ZOBRIST[isP1Turn ? 0 : 1][index];
+        hashMiroir ^= ZOBRIST[isP1Turn ? 0 : 1][MIROIR[index]];
+        majFenetres(isP1Turn ? 0 : 1, index, 1);
+        hauteurs[col] = Math.max(hauteurs[col], NB_ROW - row);
         return true;
     }
 
@@ -190,40 +395,127 @@ public class Puissance4 {
     }
 
     /**
-     * Vérifie si un joueur a gagné après avoir posé une pièce au coord (col, row)
+     * Vérifie si le joueur qui possède la pièce au coord (col, row) a gagné, c'est-à-dire s'il a au moins 4 pièces
+     * alignées. Le test se fait sur le bitboard du propriétaire de la case par décalages de bits : le résultat
+     * ne dépend donc pas du joueur dont c'est le tour.
      *
      * @param col l'indice de la colonne de la pièce posée
      * @param row l'indice de la ligne de la pièce posée
-     * @return true si la partie est gagné, càd qu'il y a au moins une rangée de 4 pièces de la même couleur, sinon false
+     * @return true si le propriétaire de la pièce a gagné, false si la case est vide ou hors du plateau
      */
     public boolean checkIfWinMove(int col, int row) {
-        // check horizontal
-        List<Piece> horizontal = new ArrayList<>();
-        int horiStart = Math.max((col - 3), 0);
-        int horiEnd = Math.min((col + 3), NB_COL - 1);
-        for(int i = horiStart; i <= horiEnd; i++) {
-            horizontal.add(plateau[i][row]);
-        }
-        // check vertical
-        List<Piece> vertical = new ArrayList<>();
-        int vertiStart = Math.max((row - 3), 0);
-        int vertiEnd = Math.min((row + 3), NB_ROW - 1);
-        for(int i = vertiStart; i <= vertiEnd; i++) {
-            vertical.add(plateau[col][i]);
+        if(isOutOfLimitBoard(col, row)) return false;
+        long bit = cellBit(col, row);
+        if((bitboardP1 & bit) != 0) return hasAlignment(bitboardP1);
+        if((bitboardP2 & bit) != 0) return hasAlignment(bitboardP2);
+        return false;
+    }
+
+    /**
+     * Indique si le joueur courant gagnerait en posant une pièce à la colonne donnée, sans jouer le coup :
+     * on ajoute la case libre de la colonne à une copie (un long) de son bitboard, rien n'est alloué.
+     *
+     * @param col la colonne de la pièce à poser
+     * @return true si le coup est jouable et aligne 4 pièces, sinon false
+     */
+    public boolean isWinningMove(int col) {
+        if(isOutOfLimitCol(col) || hauteurs[col] >= NB_ROW) return false;
+        long bit = 1L << (col * BITS_PAR_COL + hauteurs[col]);
+        return hasAlignment((isP1Turn ? bitboardP1 : bitboardP2) | bit);
+    }
+
+    /**
+     * Cherche un coup gagnant immédiat pour le joueur courant (cf. isWinningMove).
+     *
+     * @return l'indice de la 1ère colonne gagnante, -1 s'il n'y en a pas
+     */
+    public int findWinningMove() {
+        int gagnantes = getColonnesGagnantes();
+        return gagnantes == 0 ? -1 : Integer.numberOfTrailingZeros(gagnantes);
+    }
+
+    /**
+     * @return les colonnes (le bit col à 1 pour la colonne col) où le joueur courant gagne en posant une pièce
+     */
+    public int getColonnesGagnantes() {
+        long occupe = bitboardP1 | bitboardP2;
+        long menaces = casesGagnantes(isP1Turn ? bitboardP1 : bitboardP2, occupe);
+        return colonnes(menaces & casesJouables(occupe));
+    }
+
+    /**
+     * @return les colonnes (le bit col à 1 pour la colonne col) où l'adversaire gagnerait en posant une pièce
+     * s'il avait la main, le joueur courant doit donc y jouer pour le contrer
+     */
+    public int getColonnesAParer() {
+        long occupe = bitboardP1 | bitboardP2;
+        long menaces = casesGagnantes(isP1Turn ? bitboardP2 : bitboardP1, occupe);
+        return colonnes(menaces & casesJouables(occupe));
+    }
+
+    /**
+     * Les coups du joueur courant qui ne donnent pas une victoire immédiate à l'adversaire : s'il y a une menace
+     * adverse à parer, seul le coup qui la pare, et jamais un coup juste en dessous d'une case où l'adversaire
+     * gagnerait. A n'utiliser que si le joueur courant n'a pas de coup gagnant (cf. getColonnesGagnantes).
+     *
+     * @return les colonnes (le bit col à 1 pour la colonne col) des coups non perdants,
+     * 0 si tous les coups perdent (ex: deux menaces adverses à parer)
+     */
+    public int getCoupsNonPerdants() {
+        long occupe = bitboardP1 | bitboardP2;
+        long jouables = casesJouables(occupe);
+        long menacesAdverses = casesGagnantes(isP1Turn ? bitboardP2 : bitboardP1, occupe);
+        long forces = jouables & menacesAdverses;
+        if(forces != 0) {
+            if((forces & (forces - 1)) != 0) return 0; // on ne peut pas parer deux menaces à la fois
+            jouables = forces;
         }
-        // check diagonal top-left -> bottom-right : "\"
-        List<Piece> diagTopLeft = new ArrayList<>(); // Ex: (2,1), (3,2), (4,3), (5,4),
-        for(int i = -3; i < WIN_NUMBER; i++) {
-            if(pieceIsPresent(col + i, row + i)) diagTopLeft.add(plateau[col + i][row + i]);
-            else diagTopLeft.add(Piece.EMPTY);
+        return colonnes(jouables & ~(menacesAdverses >> 1));
+    }
+
+    /**
+     * Les cases vides qui complèteraient une rangée de 4 pièces du joueur, jouables ou non.
+     * Comme pour hasAlignment, chaque direction se vérifie par décalages : une case est gagnante si elle complète
+     * 3 pièces alignées d'un côté, ou 2 d'un côté et 1 de l'autre.
+     *
+     * @param pieces les pièces du joueur
+     * @param occupe toutes les pièces du plateau
+     * @return le bitboard des cases gagnantes du joueur
+     */
+    private static long casesGagnantes(long pieces, long occupe) {
+        // vertical : seule la case au-dessus de 3 pièces empilées
+        long r = (pieces << 1) & (pieces << 2) & (pieces << 3);
+        // horizontal, diagonal "\" et diagonal "/"
+        for(int d = BITS_PAR_COL - 1; d <= BITS_PAR_COL + 1; d++) {
+            long p = (pieces << d) & (pieces << (2 * d));
+            r |= p & (pieces << (3 * d));
+            r |= p & (pieces >> d);
+            p = (pieces >> d) & (pieces >> (2 * d));
+            r |= p & (pieces << d);
+            r |= p & (pieces >> (3 * d));
         }
-        // check diagonal bottom-left -> top-right : "/"
-        List<Piece> diagBotLeft = new ArrayList<>(); // Ex: (4,1), (3,2), (2,3), (1,4),
-        for(int i = -3; i < WIN_NUMBER; i++) {
-            if(pieceIsPresent(col - i, row + i)) diagBotLeft.add(plateau[col - i][row + i]);
-            else diagBotLeft.add(Piece.EMPTY);
+        return r & ~occupe & BOARD_MASK;
+    }
+
+    /**
+     * @param occupe toutes les pièces du plateau
+     * @return le bitboard des cases où une pièce peut être posée, une par colonne non pleine
+     */
+    private static long casesJouables(long occupe) {
+        // la retenue de l'addition monte jusqu'à la 1ère case vide de chaque colonne
+        return (occupe + BOTTOM_MASK) & BOARD_MASK;
+    }
+
+    /**
+     * @param cases un bitboard
+     * @return les colonnes (le bit col à 1 pour la colonne col) qui contiennent au moins une case du bitboard
+     */
+    private static int colonnes(long cases) {
+        int result = 0;
+        for(int col = 0; col < NB_COL; col++) {
+            if((cases & (COLONNE_MASK << (col * BITS_PAR_COL))) != 0) result |= 1 << col;
         }
-        return checkRange(horizontal) || checkRange(vertical) || checkRange(diagTopLeft) || checkRange(diagBotLeft);
+        return result;
     }
 
     /**
@@ -250,6 +542,65 @@ public class Puissance4 {
 
     public void nextTurn() {
         isP1Turn = !isP1Turn;
+        hash ^= ZOBRIST_TOUR_P2;
+        hashMiroir ^= ZOBRIST_TOUR_P2;
+    }
+
+    /**
+     * @return le hash de Zobrist de la position (pièces des deux joueurs et joueur qui doit jouer)
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return le hash de Zobrist de la position symétrique, celle où chaque colonne col devient miroir(col)
+     */
+    public long getHashMiroir() {
+        return hashMiroir;
+    }
+
+    /**
+     * Une position et sa symétrique ont la même valeur et des meilleurs coups symétriques : les tables de l'ia
+     * les enregistrent sous une seule clé, le plus petit des deux hashs. Les coups enregistrés avec cette clé sont
+     * ceux de la forme canonique, à traduire avec coupCanonique().
+     *
+     * @return la clé canonique de la position, la même pour la position et sa symétrique
+     */
+    public long getCleCanonique() {
+        return Math.min(hash, hashMiroir);
+    }
+
+    /**
+     * @return true si la forme canonique de la position est sa symétrique (cf. getCleCanonique)
+     */
+    public boolean isMiroir() {
+        return hashMiroir < hash;
+    }
+
+    /**
+     * Traduit une colonne de la position vers sa forme canonique, ou inversement (la symétrie est sa propre inverse).
+     *
+     * @param col une colonne, ou -1 pour aucun coup
+     * @return la colonne correspondante, -1 si col vaut -1
+     */
+    public int coupCanonique(int col) {
+        return col >= 0 && isMiroir() ? miroir(col) : col;
+    }
+
+    /**
+     * @param col une colonne
+     * @return la colonne symétrique par rapport à la colonne du milieu
+     */
+    public static int miroir(int col) {
+        return NB_COL - 1 - col;
+    }
+
+    /**
+     * @return true si c'est au joueur 1 de jouer
+     */
+    public boolean isP1Turn() {
+        return isP1Turn;
     }
 
     public boolean getHaveAHumanPlayer() {
@@ -264,6 +615,13 @@ public class Puissance4 {
         return (isP1Turn) ? player1 : player2;
     }
 
+    /**
+     * @return le joueur qui attend son tour, l'adversaire du joueur actuel
+     */
+    public Player getOpponentPlayer() {
+        return (isP1Turn) ? player2 : player1;
+    }
+
     public void setGameIsOver() {
         isGameOver = true;
     }
@@ -278,29 +636,169 @@ public class Puissance4 {
      */
     private static final int[] soloPieceHeuristic = {40, 70, 120, 200, 120, 70, 40};
 
+    /**
+     * Score d'une fenêtre de 4 cases pour un joueur, indexé par [nb de pièces du joueur][nb de pièces adverses].
+     * Une fenêtre qui contient une pièce adverse ne rapporte rien. Une pièce seule rapporte peu, mais les pièces
+     * du centre appartiennent à plus de fenêtres (comme soloPieceHeuristic, elles valent donc plus).
+     */
+    private static final int[][] SCORE_FENETRE = {
+            {0, 0, 0, 0, 0},
+            {15, 0, 0, 0, 0},
+            {2500, 0, 0, 0, 0},
+            {900000, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0} // 4 pièces : la partie est terminée, évaluée à part
+    };
+
+    /**
+     * Coordonnées (col, row) de départ des diagonales "\" qui contiennent au moins 4 cases
+     */
+    private static final int[][] DIAG_TOP_LEFT_LIST = {{3, 0}, {2, 0}, {1, 0}, {0, 0}, {0, 1}, {0, 2}};
+    /**
+     * Coordonnées (col, row) de départ des diagonales "/" qui contiennent au moins 4 cases
+     */
+    private static final int[][] DIAG_BOT_LEFT_LIST = {{0, 3}, {0, 4}, {0, 5}, {1, 5}, {2, 5}, {3, 5}};
+
+    /**
+     * Score d'une fenêtre de 4 cases pour le joueur 1 moins son score pour le joueur 2, précalculé par scoreTable().
+     * Indexé par indexTable(nb de pièces du joueur 1, nb de pièces du joueur 2, nb de cases vides jouables).
+     */
+    private static final int[] SCORE_TABLE = scoreTable();
+
+    /**
+     * Reprend les valeurs de calculateHeuristic pour une fenêtre : une fenêtre qui contient une pièce adverse
+     * ne rapporte rien, 2 pièces rapportent 5000 par case vide jouable, 3 pièces rapportent 900000 si la dernière
+     * case est jouable (une menace immédiate) et rien sinon. Une pièce seule rapporte peu, mais comme dans
+     * soloPieceHeuristic les pièces du centre valent plus, car elles appartiennent à plus de fenêtres.
+     *
+     * @return la table SCORE_TABLE
+     */
+    private static int[] scoreTable() {
+        // score d'une fenêtre pour un joueur qui y a "miens" pièces et aucune pièce adverse
+        int[][] score = new int[WIN_NUMBER + 1][WIN_NUMBER + 1];
+        for(int libres = 0; libres <= WIN_NUMBER; libres++) {
+            score[1][libres] = 15;
+            score[2][libres] = 5000 * libres;
+            score[3][libres] = libres == 1 ? 900000 : 0;
+            // 4 pièces : la partie est terminée, évaluée à part
+        }
+        int[] table = new int[indexTable(WIN_NUMBER, WIN_NUMBER, WIN_NUMBER) + 1];
+        for(int miens = 0; miens <= WIN_NUMBER; miens++) {
+            for(int libres = 0; libres <= WIN_NUMBER; libres++) {
+                table[indexTable(miens, 0, libres)] += score[miens][libres];
+                table[indexTable(0, miens, libres)] -= score[miens][libres];
+            }
+        }
+        return table;
+    }
+
+    private static int indexTable(int piecesP1, int piecesP2, int libres) {
+        return (piecesP1 * (WIN_NUMBER + 1) + piecesP2) * (WIN_NUMBER + 1) + libres;
+    }
+
+    /**
+     * Met à jour les compteurs et les scores des fenêtres qui contiennent la case donnée.
+     *
+     * @param joueur 0 pour le joueur 1, 1 pour le joueur 2
+     * @param index  l'indice de la case dans le bitboard
+     * @param delta  1 si la pièce est posée, -1 si elle est retirée
+     */
+    private void majFenetres(int joueur, int index, int delta) {
+        int[] miens = compteursFenetres[joueur];
+        int[] adverses = compteursFenetres[1 - joueur];
+        for(int f : Fenetres.PAR_CASE[index]) {
+            int avant = miens[f];
+            int apres = avant + delta;
+            int adverse = adverses[f];
+            scoresFenetres[joueur] += SCORE_FENETRE[apres][adverse] - SCORE_FENETRE[avant][adverse];
+            scoresFenetres[1 - joueur] += SCORE_FENETRE[adverse][apres] - SCORE_FENETRE[adverse][avant];
+            miens[f] = apres;
+        }
+    }
+
+    public ModeEvaluation getModeEvaluation() {
+        return modeEvaluation;
+    }
+
+    /**
+     * Choisit la façon dont evaluation() calcule l'heuristique du plateau.
+     *
+     * @param modeEvaluation COMPLETE pour le parcours de tout le plateau, INCREMENTALE pour le score des fenêtres,
+     *                       TABLE pour le score des fenêtres selon leurs cases jouables
+     */
+    public void setModeEvaluation(ModeEvaluation modeEvaluation) {
+        this.modeEvaluation = modeEvaluation;
+    }
+
     /**
      * Retourne l'evaluation de la valeur de l'heuristique du plateau pour le joueur donnée en paramètre.
      * Le retour > 0 si le joueur à l'avantage, < 0 s'il est en désavantage et 0 si il y a égalité.
+     * Le calcul dépend du mode d'évaluation choisi (cf. setModeEvaluation).
      *
      * @param p le joueur concerné
      * @return la valeur de l'heuristique du plateau pour le joueur donnée en paramètre
      */
     public int evaluation(Player p) {
-        int p1Score = 0;
-        int p2Score = 0;
         // Si on a un vainqueur ou si il y a égalité
         if(isGameOver) {
             if(winner == null) return 0;
             else if(winner == p) return Integer.MAX_VALUE;
             return Integer.MIN_VALUE;
         }
+        if(modeEvaluation == ModeEvaluation.INCREMENTALE) return evaluationIncrementale(p);
+        if(modeEvaluation == ModeEvaluation.TABLE) return evaluationTable(p);
+        return evaluationComplete(p);
+    }
+
+    /**
+     * Evaluation incrémentale en O(1) : différence des scores des fenêtres des deux joueurs,
+     * tenus à jour à chaque pièce posée ou retirée.
+     *
+     * @param p le joueur concerné
+     * @return la valeur de l'heuristique du plateau pour le joueur donnée en paramètre
+     */
+    public int evaluationIncrementale(Player p) {
+        int result = scoresFenetres[0] - scoresFenetres[1];
+        return p == player1 ? result : -result;
+    }
+
+    /**
+     * Evaluation par la table SCORE_TABLE : chaque fenêtre est notée selon le nombre de pièces de chaque joueur
+     * et le nombre de ses cases vides jouables dès maintenant (comme Piece.UNAVAILABLE dans evaluationComplete,
+     * une case vide au-dessus d'une case vide ne compte pas).
+     *
+     * @param p le joueur concerné
+     * @return la valeur de l'heuristique du plateau pour le joueur donnée en paramètre
+     */
+    public int evaluationTable(Player p) {
+        long occupe = bitboardP1 | bitboardP2;
+        // une case vide est jouable si elle est sur la ligne du bas ou au-dessus d'une pièce
+        long jouables = ~occupe & BOARD_MASK & ((occupe << 1) | BOTTOM_MASK);
+        int result = 0;
+        for(long masque : Fenetres.MASQUES) {
+            int p1 = Long.bitCount(bitboardP1 & masque);
+            int p2 = Long.bitCount(bitboardP2 & masque);
+            int libres = Long.bitCount(jouables & masque);
+            result += SCORE_TABLE[indexTable(p1, p2, libres)];
+        }
+        return p == player1 ? result : -result;
+    }
+
+    /**
+     * Evaluation par parcours complet des colonnes, lignes et diagonales du plateau.
+     *
+     * @param p le joueur concerné
+     * @return la valeur de l'heuristique du plateau pour le joueur donnée en paramètre
+     */
+    public int evaluationComplete(Player p) {
+        int p1Score = 0;
+        int p2Score = 0;
 
         // Calcul de l'heuristique pour les alignements verticals (pour chaque colonne)
         for(int col = 0; col < NB_COL; col++) {
             List<Piece> vertical = new ArrayList<>();
             int row = NB_ROW - 1;
             for(; row >= 0; row--) {
-                Piece aPiece = plateau[col][row];
+                Piece aPiece = getPiece(col, row);
                 if(aPiece == Piece.EMPTY) break;
                 vertical.add(aPiece);
 
@@ -323,10 +821,10 @@ public class Puissance4 {
             for(int col = 0; col < NB_COL; col++) { // on commence par la ligne tout en bas
                 // on check si la place en dessous est vide (sauf si 1ère ligne)
                 // si oui, alors la place d'en haut n'est pas valide.
-                if(row != NB_ROW - 1 && plateau[col][row + 1] == Piece.EMPTY) {
+                if(row != NB_ROW - 1 && getPiece(col, row + 1) == Piece.EMPTY) {
                     horizontal.add(Piece.UNAVAILABLE);
                 } else {
-                    horizontal.add(plateau[col][row]);
+                    horizontal.add(getPiece(col, row));
                 }
             }
             p1Score += calculateHeuristicHoriOrDiag(horizontal, true);
@@ -334,36 +832,32 @@ public class Puissance4 {
         }
 
         // Pour chaque diagonal top-left -> bottom-right : "\" qui contient au moins
-        // 4 emplacements possibles pour une pièce.
-        // Ci-dessous est la liste des coords de départ pour vérifier un diagonal "\"
-        int[][] diagTopLeftList = {{3, 0}, {2, 0}, {1, 0}, {0, 0}, {0, 1}, {0, 2}};
-        for(int[] coords : diagTopLeftList) {
+        // 4 emplacements possibles pour une pièce (cf. DIAG_TOP_LEFT_LIST).
+        for(int[] coords : DIAG_TOP_LEFT_LIST) {
             List<Piece> diagTopLeft = new ArrayList<>();
             for(int i = 0; i < NB_COL; i++) {
                 int col = coords[0] + i;
                 int row = coords[1] + i;
                 if(isOutOfLimitBoard(col, row)) break; // en diag, on a max 6 pièces alignées
-                else if(row != NB_ROW - 1 && plateau[col][row + 1] == Piece.EMPTY) {
+                else if(row != NB_ROW - 1 && getPiece(col, row + 1) == Piece.EMPTY) {
                     diagTopLeft.add(Piece.UNAVAILABLE); // indique une place libre mais inaccesible pour l'instant
-                } else diagTopLeft.add(plateau[col][row]);
+                } else diagTopLeft.add(getPiece(col, row));
             }
             p1Score += calculateHeuristicHoriOrDiag(diagTopLeft, true);
             p2Score += calculateHeuristicHoriOrDiag(diagTopLeft, false);
         }
 
         // Pour chaque diagonal bottom-left -> top-right : "/" qui contient au moins
-        // 4 emplacements possibles pour une pièce.
-        // Ci dessous est la liste des coords de départ pour vérifier un diagonal "/"
-        int[][] diagBotLeftList = {{0, 3}, {0, 4}, {0, 5}, {1, 5}, {2, 5}, {3, 5}};
-        for(int[] coords : diagBotLeftList) {
+        // 4 emplacements possibles pour une pièce (cf. DIAG_BOT_LEFT_LIST).
+        for(int[] coords : DIAG_BOT_LEFT_LIST) {
             List<Piece> diagBotLeft = new ArrayList<>();
             for(int i = 0; i < NB_COL; i++) {
                 int col = coords[0] + i;
                 int row = coords[1] - i;
                 if(isOutOfLimitBoard(col, row)) break; // en diag, on a max 6 pièces alignées
-                else if(row != NB_ROW - 1 && plateau[col][row + 1] == Piece.EMPTY) {
+                else if(row != NB_ROW - 1 && getPiece(col, row + 1) == Piece.EMPTY) {
                     diagBotLeft.add(Piece.UNAVAILABLE);
-                } else diagBotLeft.add(plateau[col][row]);
+                } else diagBotLeft.add(getPiece(col, row));
             }
             p1Score += calculateHeuristicHoriOrDiag(diagBotLeft, true);
             p2Score += calculateHeuristicHoriOrDiag(diagBotLeft, false);
@@ -381,14 +875,14 @@ public class Puissance4 {
      * @return true si la piece est isolé des autres pièces de la même couleurs
      */
     private boolean checkIfIsolatePiece(int col, int row) {
-        Piece top = !isOutOfLimitCol(row - 1) ? plateau[col][row - 1] : null;
-        Piece left = !isOutOfLimitCol(col - 1) ? plateau[col - 1][row] : null;
-        Piece right = !isOutOfLimitCol(col + 1) ? plateau[col + 1][row] : null;
-        Piece bottom = !isOutOfLimitRow(row + 1) ? plateau[col][row + 1] : null;
-        Piece diagTopLeft = !isOutOfLimitBoard(col - 1, row - 1) ? plateau[col - 1][row - 1] : null;
-        Piece diagBotLeft = !isOutOfLimitBoard(col - 1, row + 1) ? plateau[col - 1][row + 1] : null;
-        Piece diagTopRight = !isOutOfLimitBoard(col + 1, row - 1) ? plateau[col + 1][row - 1] : null;
-        Piece diagBotRight = !isOutOfLimitBoard(col + 1, row + 1) ? plateau[col + 1][row + 1] : null;
+        Piece top = !isOutOfLimitCol(row - 1) ? getPiece(col, row - 1) : null;
+        Piece left = !isOutOfLimitCol(col - 1) ? getPiece(col - 1, row) : null;
+        Piece right = !isOutOfLimitCol(col + 1) ? getPiece(col + 1, row) : null;
+        Piece bottom = !isOutOfLimitRow(row + 1) ? getPiece(col, row + 1) : null;
+        Piece diagTopLeft = !isOutOfLimitBoard(col - 1, row - 1) ? getPiece(col - 1, row - 1) : null;
+        Piece diagBotLeft = !isOutOfLimitBoard(col - 1, row + 1) ? getPiece(col - 1, row + 1) : null;
+        Piece diagTopRight = !isOutOfLimitBoard(col + 1, row - 1) ? getPiece(col + 1, row - 1) : null;
+        Piece diagBotRight = !isOutOfLimitBoard(col + 1, row + 1) ? getPiece(col + 1, row + 1) : null;
         Piece[] neighbours = {top, left, right, bottom, diagTopLeft, diagBotLeft, diagTopRight, diagBotRight};
 
         for(Piece voisin : neighbours) {
@@ -4,6 +4,7 @@ import game.Piece;
 import game.Puissance4;
 import javafx.animation.PauseTransition;
 import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -22,6 +23,8 @@ import player.Player;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Classe permettant de créer la fênetre du jeu Puissance 4.
@@ -58,6 +61,14 @@ public class Puissance4Pane extends BorderPane {
      * Indique si le panneau principal est en actif (il est désactivé lorsque la scène est changée)
      */
     private boolean paneIsAlive;
+    /**
+     * La recherche de l'ia en cours sur son propre thread, null si aucune
+     */
+    private CompletableFuture<Integer> rechercheEnCours;
+    /**
+     * La réflexion de l'ia pendant le tour de l'humain (cf. Computer.ponderAsync), null si aucune
+     */
+    private CompletableFuture<Void> ponderEnCours;
 
     /**
      * Constructeur par défaut.
@@ -249,7 +260,11 @@ public class Puissance4Pane extends BorderPane {
      * si ce n'est as le cas, la partie passe au tour suivant et lance l'action du prochain joueur.
      */
     private void validerPlacePieceGui() {
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        Player joueur = game.getCurrentPlayer();
         validBtn.setDisable(true);
+        annulerPonder();
         // Placer la pièce permet de passer au tour du joueur suivant si la partie n'est pas encore terminée.
         game.placePiece(selectionedCol);
         lastPiece = null;
@@ -267,6 +282,12 @@ public class Puissance4Pane extends BorderPane {
             Player nextPlayer = game.getCurrentPlayer();
             playerAction(nextPlayer);
         }
+        if(event.shouldCommit()) {
+            event.action = "validerPlacePieceGui";
+            event.joueur = joueur.getName();
+            event.colonne = selectionedCol;
+            event.commit();
+        }
     }
 
     /**
@@ -283,15 +304,36 @@ public class Puissance4Pane extends BorderPane {
             PauseTransition pause = new PauseTransition(Duration.millis(this.waitDuration));
             Puissance4 p4Game = game;
             pause.setOnFinished(e -> {
-                int colSelectedByIA = currentPlayer.play(p4Game); // le choix de la colonne par l'ia
-                if(!p4Game.isOutOfLimitCol(colSelectedByIA)) {
-                    placePieceGUI(colSelectedByIA);
-                    validerPlacePieceGui();
-                } else titleLabel.setText("[Error] Ia return a invalide number of col !");
-                validBtn.setDisable(false);
-                gamePane.setDisable(false);
+                if(p4Game != game) return; // la partie a été réinitialisée pendant l'attente
+                TurnEvent event = new TurnEvent();
+                event.begin();
+                // l'ia cherche sur son propre thread, l'interface reste fluide et peut annuler la recherche
+                CompletableFuture<Integer> recherche = ((Computer) currentPlayer).playAsync(p4Game);
+                rechercheEnCours = recherche;
+                recherche.whenComplete((colSelectedByIA, erreur) -> Platform.runLater(() -> {
+                    // recherche annulée entre-temps
+                    if(erreur instanceof CancellationException || recherche != rechercheEnCours) return;
+                    rechercheEnCours = null;
+                    if(erreur != null) {
+                        titleLabel.setText("[Error] " + currentPlayer.getName() + " : " + erreur);
+                    } else if(!p4Game.isOutOfLimitCol(colSelectedByIA)) {
+                        placePieceGUI(colSelectedByIA);
+                        validerPlacePieceGui();
+                    } else titleLabel.setText("[Error] Ia return a invalide number of col !");
+                    validBtn.setDisable(false);
+                    gamePane.setDisable(false);
+                    if(erreur == null && event.shouldCommit()) {
+                        event.action = "playerAction";
+                        event.joueur = currentPlayer.getName();
+                        event.colonne = colSelectedByIA;
+                        event.commit();
+                    }
+                }));
             });
             pause.play();
+        } else if(game.getOpponentPlayer() instanceof Computer) {
+            // l'ia réfléchit pendant que l'humain choisit sa colonne
+            ponderEnCours = ((Computer) game.getOpponentPlayer()).ponderAsync(game);
         }
     }
 
@@ -299,8 +341,13 @@ public class Puissance4Pane extends BorderPane {
      * Reinitialise le jeu
      */
     private void resetGameGui() {
+        annulerRecherche();
         this.game.setGameIsOver();
         this.game = new Puissance4(initialGame);
+        // la table de transposition et l'ordre des coups de la partie précédente ne servent plus
+        for(Player joueur : new Player[]{game.getCurrentPlayer(), game.getOpponentPlayer()}) {
+            if(joueur instanceof Computer) ((Computer) joueur).nouvellePartie();
+        }
         updateInformationLabel();
         // Création de l'aspect graphique du plateau de jeu
         this.initPlateauPane();
@@ -308,6 +355,27 @@ public class Puissance4Pane extends BorderPane {
         this.playerAction(game.getCurrentPlayer());
     }
 
+    /**
+     * Arrête la recherche de l'ia en cours s'il y en a une, son résultat sera ignoré
+     */
+    private void annulerRecherche() {
+        if(rechercheEnCours != null) {
+            rechercheEnCours.cancel(false);
+            rechercheEnCours = null;
+        }
+        annulerPonder();
+    }
+
+    /**
+     * Arrête la réflexion de l'ia pendant le tour de l'humain s'il y en a une
+     */
+    private void annulerPonder() {
+        if(ponderEnCours != null) {
+            ponderEnCours.cancel(false);
+            ponderEnCours = null;
+        }
+    }
+
     /**
      * Défini les tailles des boutons utilisées dans la barre des boutons
      *
@@ -0,0 +1,24 @@
+package gui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evènement JFR du traitement d'un tour de jeu par l'interface (choix de l'ia, validation d'une pièce).
+ *
+ * @author Xiumin LIN
+ */
+@Name("puissance4.Turn")
+@Label("Tour de jeu dans l'interface")
+@Category({"Puissance 4", "Interface"})
+final class TurnEvent extends jdk.jfr.Event {
+    @Label("Action")
+    String action;
+
+    @Label("Joueur")
+    String joueur;
+
+    @Label("Colonne")
+    int colonne;
+}
@@ -0,0 +1,177 @@
+package ia;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cache persistant des analyses : le résultat des recherches de l'ia (coup, score et profondeur) rangé dans
+ * un fichier, pour être réutilisé d'une partie à l'autre et d'un lancement de l'application à l'autre.
+ * <p>
+ * Comme le livre d'ouvertures, le fichier est projeté en mémoire avec un MappedByteBuffer, mais en lecture et
+ * écriture : l'ouvrir ne lit rien, seules les pages consultées sont chargées par le système, et les entrées
+ * écrites sont recopiées dans le fichier par le système. Après un en-tête de TAILLE_ENTETE octets (magic,
+ * version, log2 du nombre d'entrées), le fichier contient un nombre fixe d'entrées de TAILLE_ENTREE octets,
+ * rangées comme celles d'une table de transposition : la clé canonique de la position XOR les données, puis
+ * les données compactées (cf. TranspositionTable.compacter). Une position ne peut occuper que l'entrée désignée
+ * par sa clé, qui garde l'analyse la plus profonde.
+ * </p>
+ * <p>
+ * Le cache peut être partagé sans verrou entre plusieurs threads, et même entre plusieurs processus qui
+ * projettent le même fichier : une entrée écrite à moitié ne correspond plus à sa clé et est vue comme absente.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public final class AnalysisCache {
+    static final int MAGIC = 0x50344143; // "P4AC"
+    static final int VERSION = 1;
+    static final int TAILLE_ENTETE = 16;
+    static final int TAILLE_ENTREE = 16;
+    /**
+     * Log2 du nombre d'entrées d'un nouveau fichier (2^20 entrées, 16 Mo)
+     */
+    public static final int TAILLE_LOG2_PAR_DEFAUT = 20;
+    /**
+     * Propriété système donnant le chemin du cache utilisé par défaut, aucun cache si elle est absente
+     */
+    public static final String PROPRIETE_FICHIER = "puissance4.analyses";
+
+    private final MappedByteBuffer buffer;
+    private final int masque;
+    private long hits;
+    private long misses;
+
+    private AnalysisCache(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if(buffer.capacity() < TAILLE_ENTETE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Le fichier n'est pas un cache d'analyses valide");
+        }
+        int log2Taille = buffer.getInt(8);
+        if(log2Taille < 0 || log2Taille > 26
+                || buffer.capacity() < TAILLE_ENTETE + ((long) TAILLE_ENTREE << log2Taille)) {
+            throw new IllegalArgumentException("Le cache d'analyses est tronqué");
+        }
+        this.masque = (1 << log2Taille) - 1;
+    }
+
+    /**
+     * Projette en mémoire un cache d'analyses, créé s'il n'existe pas.
+     *
+     * @param fichier    le chemin du cache
+     * @param log2Taille le log2 du nombre d'entrées si le fichier est créé (ignoré sinon, au plus 26)
+     * @return le cache
+     * @throws IOException              si le fichier ne peut pas être lu ou créé
+     * @throws IllegalArgumentException si le fichier existe mais n'est pas un cache d'analyses
+     */
+    public static AnalysisCache ouvrir(Path fichier, int log2Taille) throws IOException {
+        try(FileChannel channel = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+            MappedByteBuffer buffer;
+            if(channel.size() == 0) {
+                // nouveau fichier : la projection l'agrandit, les entrées (à 0) sont vides
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        TAILLE_ENTETE + ((long) TAILLE_ENTREE << log2Taille));
+                buffer.putInt(8, log2Taille);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(0, MAGIC);
+            } else {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            // la projection reste valide après la fermeture du channel
+            return new AnalysisCache(buffer);
+        }
+    }
+
+    /**
+     * @return le cache désigné par la propriété système PROPRIETE_FICHIER, ouvert une seule fois et partagé par
+     * tous les ordinateurs, ou null si la propriété est absente ou si le fichier ne peut pas être ouvert
+     */
+    public static AnalysisCache parDefaut() {
+        return Defaut.CACHE;
+    }
+
+    /**
+     * Le cache par défaut n'est ouvert qu'au 1er appel de parDefaut()
+     */
+    private static final class Defaut {
+        private static final AnalysisCache CACHE = charge();
+
+        private static AnalysisCache charge() {
+            String chemin = System.getProperty(PROPRIETE_FICHIER);
+            if(chemin == null || chemin.isEmpty()) return null;
+            Path fichier = Paths.get(chemin);
+            try {
+                return ouvrir(fichier, TAILLE_LOG2_PAR_DEFAUT);
+            } catch(IOException | IllegalArgumentException e) {
+                System.err.println("[IA] cache d'analyses " + fichier + " ignoré : " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Cherche une position dans le cache et met à jour les compteurs hits/misses.
+     *
+     * @param cle la clé canonique de la position (cf. Puissance4.getCleCanonique)
+     * @return les données compactées de l'entrée (cf. TranspositionTable.score, depth et move : le coup de la
+     * forme canonique et le score du point de vue du joueur qui a la main), ou 0 si la position est absente
+     */
+    public long probe(long cle) {
+        int i = index(cle);
+        long donnees = buffer.getLong(i + 8);
+        if(donnees != 0 && (buffer.getLong(i) ^ donnees) == cle) {
+            hits++;
+            return donnees;
+        }
+        misses++;
+        return 0;
+    }
+
+    /**
+     * Enregistre l'analyse d'une position, sauf si son entrée contient déjà une analyse plus profonde
+     * (de cette position ou d'une autre).
+     *
+     * @param cle        la clé canonique de la position
+     * @param profondeur la profondeur de la recherche
+     * @param score      le score du coup, du point de vue du joueur qui a la main
+     * @param coup       le meilleur coup de la forme canonique
+     */
+    public void store(long cle, int profondeur, int score, int coup) {
+        int i = index(cle);
+        long ancienne = buffer.getLong(i + 8);
+        if(ancienne != 0 && TranspositionTable.depth(ancienne) > profondeur) return;
+        long donnees = TranspositionTable.compacter(profondeur, TranspositionTable.EXACT, score, coup);
+        buffer.putLong(i, cle ^ donnees);
+        buffer.putLong(i + 8, donnees);
+    }
+
+    private int index(long cle) {
+        return TAILLE_ENTETE + ((int) cle & masque) * TAILLE_ENTREE;
+    }
+
+    /**
+     * Recopie tout de suite dans le fichier les entrées écrites (le système le fait de lui-même, plus tard)
+     */
+    public void sauvegarder() {
+        buffer.force();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return le nombre de positions que le cache peut contenir
+     */
+    public int capacite() {
+        return masque + 1;
+    }
+}
@@ -0,0 +1,116 @@
+package ia;
+
+import java.util.Arrays;
+
+/**
+ * Table de transposition sur le tas : chaque entrée occupe 2 longs d'un tableau primitif dont la taille est
+ * une puissance de 2. Chaque entrée porte l'âge de la recherche qui l'a écrite (bits 46-53 des données),
+ * cf. nouvelleRecherche.
+ *
+ * @author Xiumin LIN
+ */
+public class ArrayTranspositionTable implements TranspositionTable {
+    private static final int DECALAGE_AGE = 46;
+    private static final int AGE_MAX = 0xFF;
+    private static final long MASQUE_AGE = (long) AGE_MAX << DECALAGE_AGE;
+
+    private final long[] entrees;
+    private final int masque;
+    private final Remplacement remplacement;
+    /**
+     * L'âge de la recherche en cours, déjà décalé à sa place dans les données
+     */
+    private long age;
+    private long hits;
+    private long misses;
+    private int occupees;
+
+    /**
+     * Constructeur par défaut.
+     *
+     * @param log2Taille   le log2 du nombre d'entrées de la table (ex: 20 pour 2^20 entrées)
+     * @param remplacement la politique de remplacement des entrées
+     */
+    public ArrayTranspositionTable(int log2Taille, Remplacement remplacement) {
+        int taille = 1 << log2Taille;
+        this.entrees = new long[2 * taille];
+        this.masque = taille - 1;
+        this.remplacement = remplacement;
+    }
+
+    @Override
+    public long probe(long cle) {
+        int i = index(cle);
+        long donnees = entrees[i + 1];
+        if(donnees != 0 && (entrees[i] ^ donnees) == cle) {
+            hits++;
+            return donnees;
+        }
+        misses++;
+        return 0;
+    }
+
+    @Override
+    public void store(long cle, int profondeur, int borne, int score, int coup) {
+        int i = index(cle);
+        long ancienne = entrees[i + 1];
+        if(ancienne == 0) {
+            occupees++;
+        } else if(remplacement == Remplacement.PROFONDEUR && (entrees[i] ^ ancienne) != cle
+                && (ancienne & MASQUE_AGE) == age && TranspositionTable.depth(ancienne) > profondeur) {
+            return; // on garde l'entrée la plus profonde de la recherche en cours
+        }
+        long donnees = TranspositionTable.compacter(profondeur, borne, score, coup) | age;
+        entrees[i] = cle ^ donnees;
+        entrees[i + 1] = donnees;
+    }
+
+    private int index(long cle) {
+        return ((int) cle & masque) << 1;
+    }
+
+    /**
+     * Passe à l'âge suivant (modulo 256 : une entrée écrite 256 recherches plus tôt redevient protégée,
+     * elle a d'ici là presque toujours été remplacée)
+     */
+    @Override
+    public void nouvelleRecherche() {
+        age = (((age >>> DECALAGE_AGE) + 1) & AGE_MAX) << DECALAGE_AGE;
+    }
+
+    /**
+     * Vide la table en effaçant toutes ses entrées (en temps linéaire) et remet les compteurs à 0
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(entrees, 0L);
+        occupees = 0;
+        resetStats();
+    }
+
+    @Override
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public int capacite() {
+        return masque + 1;
+    }
+
+    @Override
+    public double getFillRate() {
+        return (double) occupees / capacite();
+    }
+}
@@ -0,0 +1,25 @@
+package ia;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evènement JFR résumant l'utilisation d'un cache pendant une recherche de l'ia : un évènement par cache
+ * et par recherche, plutôt qu'un par consultation, pour ne pas ralentir la recherche pendant l'enregistrement.
+ *
+ * @author Xiumin LIN
+ */
+@Name("puissance4.CacheHits")
+@Label("Consultations d'un cache de l'ia")
+@Category({"Puissance 4", "IA"})
+final class CacheHitEvent extends jdk.jfr.Event {
+    @Label("Cache")
+    String cache;
+
+    @Label("Consultations")
+    long probes;
+
+    @Label("Hits")
+    long hits;
+}
@@ -0,0 +1,35 @@
+package ia;
+
+import game.Puissance4;
+
+/**
+ * Ordre statique des coups : le meilleur coup connu d'abord, puis les colonnes du centre vers les bords.
+ * Les colonnes centrales appartiennent à plus d'alignements possibles, elles sont presque toujours les meilleures.
+ *
+ * @author Xiumin LIN
+ */
+public class CenterFirstOrdering implements MoveOrdering {
+    /**
+     * Les colonnes du centre vers les bords
+     */
+    static final int[] CENTRE_D_ABORD = centreDAbord();
+
+    private static int[] centreDAbord() {
+        int[] ordre = new int[Puissance4.NB_COL];
+        for(int i = 0; i < Puissance4.NB_COL; i++) {
+            // 3, 2, 4, 1, 5, 0, 6 pour 7 colonnes
+            ordre[i] = Puissance4.NB_COL / 2 + (i % 2 == 0 ? i / 2 : -(i / 2 + 1));
+        }
+        return ordre;
+    }
+
+    @Override
+    public int orderMoves(Puissance4 game, int ply, int coupTable, int[] coups) {
+        int n = 0;
+        if(coupTable >= 0 && game.nextEmptyCaseRow(coupTable) >= 0) coups[n++] = coupTable;
+        for(int col : CENTRE_D_ABORD) {
+            if(col != coupTable && game.nextEmptyCaseRow(col) >= 0) coups[n++] = col;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,179 @@
+package ia;
+
+import game.Puissance4;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Solveur exact des fins de partie : lorsqu'il reste peu de cases vides, il n'est plus utile d'estimer le plateau
+ * avec l'heuristique, on peut chercher jusqu'à la fin de la partie et savoir si elle est gagnée, nulle ou perdue.
+ * <p>
+ * La recherche est un negamax sur un score GAGNE / NUL / PERDU du point de vue du joueur qui a la main. Comme
+ * il n'y a que 3 scores, la valeur d'une position est trouvée par au plus 2 recherches à fenêtre nulle
+ * (à la façon de MTD(f)) : "est-elle gagnée ?" puis "est-elle au moins nulle ?". Le solveur a sa propre table
+ * de transposition, dont les scores ne dépendent pas de la profondeur.
+ * </p>
+ * <p>
+ * Une condition d'arrêt (cf. setConditionArret) est consultée tous les 1024 noeuds : la résolution interrompue
+ * remonte sans rien enregistrer dans la table et meilleurCoup() renvoie null.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class EndgameSolver {
+    public static final int GAGNE = 1;
+    public static final int NUL = 0;
+    public static final int PERDU = -1;
+    private static final int NB_CASES = Puissance4.NB_COL * Puissance4.NB_ROW;
+    /**
+     * Log2 du nombre d'entrées de la table de transposition par défaut (2^20 entrées, 16 Mo)
+     */
+    private static final int TAILLE_TABLE_LOG2 = 20;
+
+    private final TranspositionTable table;
+    private long noeuds;
+    /**
+     * Consultée pendant la résolution, qui s'arrête dès qu'elle renvoie true (null = jamais)
+     */
+    private BooleanSupplier conditionArret;
+    /**
+     * Passe à true lorsque la condition d'arrêt est remplie, la résolution remonte alors sans rien enregistrer
+     */
+    private boolean interrompu;
+
+    public EndgameSolver() {
+        this(new ArrayTranspositionTable(TAILLE_TABLE_LOG2, TranspositionTable.Remplacement.TOUJOURS));
+    }
+
+    /**
+     * @param table la table de transposition propre au solveur (ses entrées ne doivent pas venir d'alpha-beta)
+     */
+    public EndgameSolver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Cherche le meilleur coup du joueur qui a la main : un coup gagnant s'il y en a un, sinon un coup qui
+     * mène à une partie nulle, sinon un coup perdant. La partie ne doit pas être terminée.
+     *
+     * @param game une partie de Puissance 4, qui est jouée puis rétablie pendant la recherche
+     * @return la colonne choisie et son score (GAGNE, NUL ou PERDU), null si la résolution a été interrompue
+     */
+    public int[] meilleurCoup(Puissance4 game) {
+        interrompu = false;
+        noeuds++;
+        int coupGagnant = game.findWinningMove();
+        if(coupGagnant >= 0) return new int[]{coupGagnant, GAGNE};
+        int col = -1;
+        int meilleur = Integer.MIN_VALUE;
+        for(int coup : CenterFirstOrdering.CENTRE_D_ABORD) {
+            if(!game.play(coup)) continue;
+            int valeur = game.isOver() ? NUL : -resoudre(game);
+            game.undo();
+            if(interrompu) return null;
+            if(valeur > meilleur) {
+                meilleur = valeur;
+                col = coup;
+                if(meilleur == GAGNE) break;
+            }
+        }
+        return new int[]{col, meilleur};
+    }
+
+    /**
+     * Résout la position par des recherches à fenêtre nulle. La partie ne doit pas être terminée.
+     *
+     * @param game une partie de Puissance 4, qui est jouée puis rétablie pendant la recherche
+     * @return GAGNE, NUL ou PERDU du point de vue du joueur qui a la main, sans signification si isInterrompu()
+     */
+    public int resoudre(Puissance4 game) {
+        interrompu = false;
+        if(negamax(game, NUL, GAGNE) >= GAGNE) return GAGNE;
+        return negamax(game, PERDU, NUL) >= NUL ? NUL : PERDU;
+    }
+
+    /**
+     * Negamax alpha-beta fail-soft sur le score GAGNE / NUL / PERDU.
+     *
+     * @return le score du joueur qui a la main, exact s'il est strictement entre alpha et beta, sinon une borne
+     */
+    private int negamax(Puissance4 game, int alpha, int beta) {
+        noeuds++;
+        if(!interrompu && conditionArret != null && (noeuds & 1023) == 0 && conditionArret.getAsBoolean()) {
+            interrompu = true;
+        }
+        if(interrompu) return NUL; // le résultat sera ignoré
+        if(game.findWinningMove() >= 0) return GAGNE;
+        // tous les coups laissent une victoire à l'adversaire au coup suivant
+        int autorises = game.getCoupsNonPerdants();
+        if(autorises == 0) return PERDU;
+        // sans coup gagnant, la dernière case vide ne peut que finir la partie sur une égalité
+        if(game.getNbCoups() >= NB_CASES - 1) return NUL;
+
+        long cle = game.getCleCanonique();
+        long entree = table.probe(cle);
+        if(entree != 0) {
+            int score = TranspositionTable.score(entree);
+            int borne = TranspositionTable.bound(entree);
+            if(borne == TranspositionTable.EXACT) return score;
+            if(borne == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+            else beta = Math.min(beta, score);
+            if(alpha >= beta) return score;
+        }
+
+        int alphaInitial = alpha;
+        int meilleur = Integer.MIN_VALUE;
+        int meilleurCoup = -1;
+        for(int coup : CenterFirstOrdering.CENTRE_D_ABORD) {
+            if((autorises & (1 << coup)) == 0 || !game.play(coup)) continue;
+            int valeur = -negamax(game, -beta, -alpha);
+            game.undo();
+            if(interrompu) return NUL; // le résultat sera ignoré
+            if(valeur > meilleur) {
+                meilleur = valeur;
+                meilleurCoup = coup;
+            }
+            if(valeur >= beta) break;
+            alpha = Math.max(alpha, valeur);
+        }
+        int borne = TranspositionTable.EXACT;
+        if(meilleur <= alphaInitial) borne = TranspositionTable.UPPER;
+        else if(meilleur >= beta) borne = TranspositionTable.LOWER;
+        table.store(cle, 0, borne, meilleur, meilleurCoup);
+        return meilleur;
+    }
+
+    /**
+     * @param conditionArret consultée tous les 1024 noeuds, la résolution s'arrête dès qu'elle renvoie true
+     *                       (null pour ne jamais s'arrêter)
+     */
+    public void setConditionArret(BooleanSupplier conditionArret) {
+        this.conditionArret = conditionArret;
+    }
+
+    /**
+     * @return true si la dernière résolution a été interrompue par la condition d'arrêt
+     */
+    public boolean isInterrompu() {
+        return interrompu;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @return le nombre de noeuds explorés depuis le dernier resetStats()
+     */
+    public long getNoeuds() {
+        return noeuds;
+    }
+
+    /**
+     * Remet à 0 le compteur de noeuds et ceux de la table de transposition
+     */
+    public void resetStats() {
+        noeuds = 0;
+        table.resetStats();
+    }
+}
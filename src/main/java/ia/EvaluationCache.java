@@ -0,0 +1,130 @@
+package ia;
+
+import java.util.Arrays;
+
+/**
+ * Cache de taille fixe des valeurs de l'heuristique du plateau : la même feuille peut être atteinte par plusieurs
+ * ordres de coups (et même évaluée plusieurs fois de suite par minimax), le cache évite de recalculer sa valeur.
+ * Il ne dépend pas de la table de transposition, il sert donc aussi à minimax.
+ * <p>
+ * Le cache est associatif par ensembles de 2 voies : une position ne peut être rangée que dans les 2 entrées de
+ * l'ensemble désigné par sa clé. La voie 0 contient la dernière position rangée ; quand l'ensemble est plein,
+ * la position de la voie 0 passe dans la voie 1 et celle de la voie 1 est perdue.
+ * </p>
+ * <p>
+ * Comme dans ArrayTranspositionTable, chaque entrée occupe 2 longs d'un tableau primitif (la clé XOR les données,
+ * puis les données), le cache peut donc être partagé entre plusieurs threads sans verrou. Les compteurs
+ * hits/misses ne sont pas synchronisés, ils restent approximatifs lorsque le cache est partagé.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class EvaluationCache {
+    /**
+     * Bit toujours à 1 dans une entrée occupée, une donnée à 0 signifie donc "aucune entrée"
+     */
+    private static final long VALIDE = 1L << 63;
+    /**
+     * Nombre de longs par ensemble : 2 voies de 2 longs
+     */
+    private static final int LONGS_PAR_ENSEMBLE = 4;
+
+    private final long[] entrees;
+    private final int masque;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructeur par défaut.
+     *
+     * @param log2NbEnsembles le log2 du nombre d'ensembles du cache (ex: 15 pour 2^15 ensembles, soit 2^16 positions)
+     */
+    public EvaluationCache(int log2NbEnsembles) {
+        int nbEnsembles = 1 << log2NbEnsembles;
+        this.entrees = new long[LONGS_PAR_ENSEMBLE * nbEnsembles];
+        this.masque = nbEnsembles - 1;
+    }
+
+    /**
+     * Cherche la position dans le cache et met à jour les compteurs hits/misses.
+     *
+     * @param cle la clé de la position
+     * @return les données de l'entrée (cf. valeur), ou 0 si la position n'est pas dans le cache
+     */
+    public long probe(long cle) {
+        int i = index(cle);
+        long donnees = entrees[i + 1];
+        if(donnees != 0 && (entrees[i] ^ donnees) == cle) {
+            hits++;
+            return donnees;
+        }
+        donnees = entrees[i + 3];
+        if(donnees != 0 && (entrees[i + 2] ^ donnees) == cle) {
+            hits++;
+            return donnees;
+        }
+        misses++;
+        return 0;
+    }
+
+    /**
+     * Range la valeur d'une position dans la voie 0 de son ensemble, l'ancienne position de la voie 0 passe
+     * dans la voie 1 (sauf si c'est la même position).
+     *
+     * @param cle    la clé de la position
+     * @param valeur la valeur de l'heuristique
+     */
+    public void store(long cle, int valeur) {
+        int i = index(cle);
+        long ancienne = entrees[i + 1];
+        if(ancienne != 0 && (entrees[i] ^ ancienne) != cle) {
+            entrees[i + 2] = entrees[i];
+            entrees[i + 3] = ancienne;
+        }
+        long donnees = VALIDE | (valeur & 0xFFFFFFFFL);
+        entrees[i] = cle ^ donnees;
+        entrees[i + 1] = donnees;
+    }
+
+    private int index(long cle) {
+        return ((int) cle & masque) * LONGS_PAR_ENSEMBLE;
+    }
+
+    /**
+     * @param donnees une entrée renvoyée par probe
+     * @return la valeur de l'heuristique de l'entrée
+     */
+    public static int valeur(long donnees) {
+        return (int) donnees;
+    }
+
+    /**
+     * Vide le cache
+     */
+    public void clear() {
+        Arrays.fill(entrees, 0L);
+    }
+
+    /**
+     * Remet à 0 les compteurs hits/misses
+     */
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return le nombre de positions que le cache peut contenir
+     */
+    public int capacite() {
+        return entrees.length / 2;
+    }
+}
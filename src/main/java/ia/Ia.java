@@ -3,8 +3,17 @@ package ia;
 import game.Puissance4;
 import player.Player;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe représentant un joueur humain
@@ -12,11 +21,441 @@ import java.util.Random;
  * @author Xiumin LIN, Celine Li
  */
 public class Ia {
+    /**
+     * Log2 du nombre d'entrées de la table de transposition par défaut (2^20 entrées, 16 Mo)
+     */
+    private static final int TAILLE_TABLE_LOG2 = 20;
+    /**
+     * Propriété système donnant la taille en Mo de la table de transposition, rangée hors du tas
+     * (cf. OffHeapTranspositionTable). Sans elle, la table est un tableau de TAILLE_TABLE_LOG2 entrées sur le tas.
+     */
+    public static final String PROPRIETE_TABLE_MO = "puissance4.table.mo";
+    /**
+     * Log2 du nombre d'ensembles du cache d'évaluation par défaut (2^15 ensembles de 2 positions, 1 Mo)
+     */
+    private static final int TAILLE_CACHE_LOG2 = 15;
+    /**
+     * Multiplié par le rang du mode d'évaluation puis ajouté par XOR à la clé d'une position dans le cache
+     * d'évaluation : une valeur calculée dans un mode n'est jamais relue dans un autre
+     */
+    private static final long CLE_MODE = 0x9E3779B97F4A7C15L;
+    /**
+     * Nombre de cases vides à partir duquel les niveaux MOYEN, FORT et CHRONO résolvent la partie exactement
+     */
+    public static final int SEUIL_FIN_DE_PARTIE = 18;
     private final Random rand = new Random();
+    private final Niveau niveau;
     private int profondeurMax;
+    /**
+     * La table de transposition utilisée par alpha-beta, null si désactivée
+     */
+    private TranspositionTable table;
+    /**
+     * Le cache des valeurs de l'heuristique, null si désactivé
+     */
+    private EvaluationCache cacheEvaluation;
+    /**
+     * Indique si la recherche en cours est limitée par le temps
+     */
+    private boolean chronometre;
+    /**
+     * L'instant (System.nanoTime) où la recherche chronométrée doit s'arrêter
+     */
+    private long deadline;
+    /**
+     * Passe à true lorsque le temps est écoulé, la recherche remonte alors sans rien enregistrer
+     */
+    private boolean rechercheInterrompue;
+    /**
+     * Demande d'arrêt venant d'un autre thread (ex: fin de la recherche principale du moteur Lazy SMP,
+     * ou partie abandonnée par l'interface, cf. demanderArret)
+     */
+    private volatile boolean arretDemande;
+    /**
+     * Pour une ia auxiliaire des moteurs multi-threads : l'ia parente, dont la demande d'arrêt est aussi suivie
+     */
+    private Ia parent;
+    /**
+     * Compteur de noeuds, sert à ne consulter l'horloge que tous les 1024 noeuds
+     */
+    private long noeuds;
+    /**
+     * Compteur d'appels à l'heuristique du plateau
+     */
+    private long evaluations;
+    /**
+     * La profondeur du noeud le plus profond visité depuis le dernier resetStats()
+     */
+    private int profondeurAtteinte;
+    /**
+     * Le meilleur coup de l'itération précédente, essayé en premier à la racine (-1 si aucun)
+     */
+    private int coupPrioritaire = -1;
+    /**
+     * La profondeur de la dernière itération terminée par playIterativeDeepening
+     */
+    private int derniereProfondeur;
+    /**
+     * Décide de l'ordre dans lequel alpha-beta explore les coups
+     */
+    private MoveOrdering ordering;
+    /**
+     * Les coups à explorer, un tableau par profondeur pour ne rien allouer pendant la recherche
+     */
+    private final int[][] coupsParProfondeur = new int[Puissance4.NB_COL * Puissance4.NB_ROW + 1][Puissance4.NB_COL];
+    /**
+     * Le nombre de coupures alpha-beta selon le rang du coup qui l'a provoquée (0 = 1er coup exploré)
+     */
+    private final long[] coupuresParRang = new long[Puissance4.NB_COL];
+    /**
+     * Les observateurs prévenus à la fin de chaque recherche lancée par rechercher()
+     */
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+    private Moteur moteur = Moteur.SEQUENTIEL;
+    private int nbThreads = 1;
+    /**
+     * Le pool de threads du moteur parallèle, créé à la 1ère recherche parallèle
+     */
+    private ForkJoinPool pool;
+    /**
+     * Pour une ia auxiliaire du moteur parallèle : la borne alpha de la racine, partagée entre les threads
+     * (null pour une recherche séquentielle)
+     */
+    private AtomicInteger alphaPartage;
+    /**
+     * Moteur negamax : le meilleur coup de la racine trouvé par la dernière recherche
+     */
+    private int coupRacine;
+    /**
+     * Moteur negamax : le score de la dernière itération terminée, centre de la fenêtre d'aspiration suivante
+     */
+    private int scoreNegamax;
+    /**
+     * Pour une ia auxiliaire du moteur parallèle : la plus grande borne alpha utilisée au noeud du coup recherché
+     */
+    private int alphaVu;
+    /**
+     * En dessous de ce nombre de cases vides (inclus), rechercher() utilise le solveur exact (0 = jamais)
+     */
+    private int seuilFinDePartie;
+    /**
+     * Le solveur des fins de partie, créé à sa 1ère utilisation
+     */
+    private EndgameSolver solveur;
+    /**
+     * Les positions recherchées par ponder() pendant le tour de l'adversaire : clé canonique -> profondeur atteinte
+     */
+    private final Map<Long, Integer> positionsPonderees = new HashMap<>();
 
     public Ia(Niveau lvl) {
+        this.niveau = lvl;
         this.profondeurMax = lvl.getProfondeur();
+        // le niveau FAIBLE reste volontairement faible jusqu'à la fin de la partie
+        this.seuilFinDePartie = lvl == Niveau.FAIBLE ? 0 : SEUIL_FIN_DE_PARTIE;
+        this.table = creerTable();
+        this.cacheEvaluation = new EvaluationCache(TAILLE_CACHE_LOG2);
+        this.ordering = new KillerHistoryOrdering();
+    }
+
+    /**
+     * @param score un score renvoyé par une recherche, dans l'échelle de l'heuristique
+     * @return true si le score annonce une victoire : forcée, ou que l'heuristique sait gagnée
+     */
+    public static boolean estVictoire(int score) {
+        return score > Scores.HEURISTIQUE_MAX;
+    }
+
+    /**
+     * @param score un score renvoyé par une recherche, dans l'échelle de l'heuristique
+     * @return true si le score annonce une défaite : forcée, ou que l'heuristique sait perdue
+     */
+    public static boolean estDefaite(int score) {
+        return score < -Scores.HEURISTIQUE_MAX;
+    }
+
+    /**
+     * @return une table hors du tas si la propriété PROPRIETE_TABLE_MO est donnée, sinon une table sur le tas
+     */
+    private static TranspositionTable creerTable() {
+        Integer megaOctets = Integer.getInteger(PROPRIETE_TABLE_MO);
+        if(megaOctets != null) {
+            return new OffHeapTranspositionTable(megaOctets, TranspositionTable.Remplacement.PROFONDEUR);
+        }
+        return new ArrayTranspositionTable(TAILLE_TABLE_LOG2, TranspositionTable.Remplacement.PROFONDEUR);
+    }
+
+    /**
+     * Constructeur d'une ia auxiliaire des moteurs multi-threads, qui recherche pour le compte de l'ia parente.
+     * Elle a ses propres compteurs et son propre ordonnancement des coups, mais partage la table de transposition
+     * et le cache d'évaluation de l'ia parente.
+     *
+     * @param parent       l'ia qui répartit la recherche
+     * @param alphaPartage la borne alpha de la racine partagée entre les threads (moteur parallèle), sinon null
+     */
+    private Ia(Ia parent, AtomicInteger alphaPartage) {
+        this.parent = parent;
+        this.niveau = parent.niveau;
+        this.profondeurMax = parent.profondeurMax;
+        this.table = parent.table;
+        this.cacheEvaluation = parent.cacheEvaluation;
+        this.ordering = new KillerHistoryOrdering();
+        this.chronometre = parent.chronometre;
+        this.deadline = parent.deadline;
+        this.alphaPartage = alphaPartage;
+    }
+
+    /**
+     * Choisit le moteur de recherche utilisé pour alpha-beta.
+     *
+     * @param moteur    le moteur de recherche
+     * @param nbThreads le nombre de threads utilisés par le moteur parallèle
+     */
+    public void setMoteur(Moteur moteur, int nbThreads) {
+        // negamax enregistre ses scores du point de vue du joueur qui a la main, alpha-beta du point de vue
+        // du joueur qui cherche : la table ne peut pas servir aux deux
+        if(table != null && (moteur == Moteur.NEGAMAX) != (this.moteur == Moteur.NEGAMAX)) table.clear();
+        this.moteur = moteur;
+        this.nbThreads = Math.max(1, nbThreads);
+    }
+
+    /**
+     * @return la table de transposition utilisée par alpha-beta, null si elle est désactivée
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Remplace la table de transposition utilisée par alpha-beta.
+     *
+     * @param table la nouvelle table, null pour désactiver la table
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @return le cache des valeurs de l'heuristique, null s'il est désactivé
+     */
+    public EvaluationCache getEvaluationCache() {
+        return cacheEvaluation;
+    }
+
+    /**
+     * Remplace le cache des valeurs de l'heuristique.
+     *
+     * @param cacheEvaluation le nouveau cache, null pour désactiver le cache
+     */
+    public void setEvaluationCache(EvaluationCache cacheEvaluation) {
+        this.cacheEvaluation = cacheEvaluation;
+    }
+
+    /**
+     * Choisit à partir de combien de cases vides la partie est résolue exactement par le solveur de fin de partie.
+     *
+     * @param seuilFinDePartie le nombre de cases vides, 0 pour ne jamais utiliser le solveur
+     */
+    public void setSeuilFinDePartie(int seuilFinDePartie) {
+        this.seuilFinDePartie = seuilFinDePartie;
+    }
+
+    public int getSeuilFinDePartie() {
+        return seuilFinDePartie;
+    }
+
+    /**
+     * Cherche le coup à jouer avec l'algo du niveau de l'ia : approfondissement itératif pour CHRONO,
+     * alpha-beta pour MOYEN et FORT, minimax pour FAIBLE. Lorsqu'il reste au plus getSeuilFinDePartie() cases
+     * vides, la partie est résolue exactement par EndgameSolver. Les compteurs sont remis à 0 avant la recherche
+     * et les observateurs sont prévenus à la fin.
+     *
+     * @param game une partie de Puissance 4, qui est jouée puis rétablie pendant la recherche
+     * @param p    le joueur qui veut utiliser l'algo (normalement un objet de class Computer)
+     * @return le coup choisi et les statistiques de la recherche
+     */
+    public SearchStats rechercher(Puissance4 game, Player p) {
+        resetStats();
+        if(table != null) table.nouvelleRecherche();
+        this.rechercheInterrompue = false;
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long debut = System.nanoTime();
+        int[] result;
+        int profondeur = this.profondeurMax;
+        TranspositionTable tableUtilisee = table;
+        int casesVides = Puissance4.NB_COL * Puissance4.NB_ROW - game.getNbCoups();
+        if(casesVides <= seuilFinDePartie && !game.isOver()) {
+            if(solveur == null) {
+                solveur = new EndgameSolver();
+                solveur.setConditionArret(() -> arretDemande);
+            }
+            solveur.resetStats();
+            result = solveur.meilleurCoup(game);
+            if(result == null) {
+                // résolution arrêtée par demanderArret()
+                rechercheInterrompue = true;
+            } else {
+                // le score du solveur est traduit dans l'échelle de l'heuristique, du point de vue de p
+                result[1] = result[1] == EndgameSolver.GAGNE ? Integer.MAX_VALUE
+                        : result[1] == EndgameSolver.PERDU ? Integer.MIN_VALUE : 0;
+            }
+            noeuds = solveur.getNoeuds();
+            profondeur = casesVides;
+            profondeurAtteinte = casesVides;
+            tableUtilisee = solveur.getTranspositionTable();
+        } else {
+            switch(niveau) {
+                case CHRONO:
+                    result = playIterativeDeepening(game, p, niveau.getTempsParCoup(), niveau.getProfondeur());
+                    profondeur = derniereProfondeur;
+                    break;
+                case MOYEN, FORT:
+                    result = playAlphaBeta(game, p);
+                    if(moteur == Moteur.LAZY_SMP || moteur == Moteur.NEGAMAX) profondeur = derniereProfondeur;
+                    // une recherche à profondeur fixe interrompue n'a pas de résultat
+                    else if(rechercheInterrompue) result = null;
+                    break;
+                case FAIBLE:
+                default:
+                    result = playMiniMax(game, 0, true, p);
+                    if(rechercheInterrompue) result = null;
+            }
+        }
+        // recherche arrêtée par demanderArret() avant d'avoir choisi un coup
+        if(result == null) result = new int[]{-1, 0};
+        long duree = System.nanoTime() - debut;
+        long probes = tableUtilisee == null ? 0 : tableUtilisee.getHits() + tableUtilisee.getMisses();
+        long hits = tableUtilisee == null ? 0 : tableUtilisee.getHits();
+        double remplissage = tableUtilisee == null ? 0 : tableUtilisee.getFillRate();
+        long probesCache = cacheEvaluation == null ? 0 : cacheEvaluation.getHits() + cacheEvaluation.getMisses();
+        long hitsCache = cacheEvaluation == null ? 0 : cacheEvaluation.getHits();
+        SearchStats stats = new SearchStats(niveau, result[0], result[1], profondeur, profondeurAtteinte, noeuds,
+                evaluations, coupuresParRang, probes, hits, remplissage, probesCache, hitsCache, duree);
+        if(event.shouldCommit()) {
+            event.niveau = niveau.name();
+            event.profondeur = profondeur;
+            event.noeuds = noeuds;
+            event.colonne = result[0];
+            event.score = result[1];
+            event.commit();
+        }
+        if(probes > 0) commitCacheHitEvent("table de transposition", probes, hits);
+        if(probesCache > 0) commitCacheHitEvent("cache d'évaluation", probesCache, hitsCache);
+        for(SearchListener listener : listeners) listener.onSearch(stats);
+        return stats;
+    }
+
+    /**
+     * Enregistre dans JFR le bilan d'un cache pour la recherche qui se termine (ne coûte rien si JFR est inactif).
+     */
+    private static void commitCacheHitEvent(String cache, long probes, long hits) {
+        CacheHitEvent event = new CacheHitEvent();
+        if(event.shouldCommit()) {
+            event.cache = cache;
+            event.probes = probes;
+            event.hits = hits;
+            event.commit();
+        }
+    }
+
+    /**
+     * Réfléchit pendant le tour de l'adversaire ("pondering") : les positions obtenues après chaque réponse possible
+     * de l'adversaire sont recherchées comme le ferait rechercher(). Les réponses sont approfondies ensemble, une
+     * profondeur à la fois (toutes les réponses à la profondeur 1, puis à la profondeur 2...), de la plus probable
+     * (le coup de la table de transposition, trouvé par la recherche précédente) à la moins probable : quel que soit
+     * le moment où l'adversaire joue, chacune de ses réponses a été préparée, même au niveau CHRONO qui n'a pas de
+     * profondeur max. Les résultats restent dans la table de transposition : si l'adversaire joue un coup déjà
+     * recherché ("ponder hit"), la recherche suivante les retrouve presque tous, sinon ("ponder miss") ils sont
+     * simplement ignorés.
+     * <p>
+     * La réflexion continue jusqu'à ce que toutes les réponses soient recherchées à la profondeur max de l'ia
+     * ou que demanderArret() soit appelé.
+     * </p>
+     *
+     * @param game une partie de Puissance 4 où l'adversaire de p a la main, jouée puis rétablie pendant la réflexion
+     * @param p    le joueur qui veut utiliser l'algo
+     */
+    public void ponder(Puissance4 game, Player p) {
+        positionsPonderees.clear();
+        this.rechercheInterrompue = false;
+        if(game.isOver()) return;
+        if(table != null) table.nouvelleRecherche();
+        int coupPrevu = -1;
+        if(table != null) {
+            long entree = table.probe(game.getCleCanonique());
+            if(entree != 0) coupPrevu = game.coupCanonique(TranspositionTable.move(entree));
+        }
+        int[] reponses = new int[Puissance4.NB_COL];
+        int nbReponses = new CenterFirstOrdering().orderMoves(game, 0, coupPrevu, reponses);
+        int limite = niveau == Niveau.FAIBLE ? 0 : this.profondeurMax;
+        // les réponses dont la valeur ne changera plus avec la profondeur
+        boolean[] terminees = new boolean[nbReponses];
+        int nbTerminees = 0;
+        for(int profondeur = 1; profondeur <= limite && nbTerminees < nbReponses; profondeur++) {
+            if(rechercheInterrompue) break;
+            for(int i = 0; i < nbReponses && !rechercheInterrompue; i++) {
+                if(terminees[i]) continue;
+                game.play(reponses[i]);
+                int casesVides = Puissance4.NB_COL * Puissance4.NB_ROW - game.getNbCoups();
+                // le solveur de fin de partie n'utilise pas cette table, et minimax aucune table
+                if(game.isOver() || casesVides <= seuilFinDePartie) {
+                    terminees[i] = true;
+                } else {
+                    int[] result = approfondissementIteratif(game, p, profondeur);
+                    if(derniereProfondeur > 0) positionsPonderees.put(game.getCleCanonique(), derniereProfondeur);
+                    // plateau rempli ou victoire forcée : la position ne changera plus avec la profondeur
+                    terminees[i] = result != null && (derniereProfondeur >= casesVides
+                            || result[1] == Integer.MAX_VALUE || result[1] == Integer.MIN_VALUE);
+                }
+                if(terminees[i]) nbTerminees++;
+                game.undo();
+            }
+        }
+    }
+
+    /**
+     * @param cle la clé canonique d'une position (cf. Puissance4.getCleCanonique)
+     * @return la profondeur atteinte par ponder() sur cette position ou sa symétrique, 0 si elle n'a pas été recherchée
+     */
+    public int getProfondeurPonderee(long cle) {
+        return positionsPonderees.getOrDefault(cle, 0);
+    }
+
+    /**
+     * Demande à la recherche en cours (ou à la prochaine) de s'arrêter dès que possible, depuis n'importe quel
+     * thread. La recherche interrompue renvoie le coup de sa dernière itération terminée en approfondissement
+     * itératif, sinon la colonne -1. La demande reste active jusqu'à l'appel d'annulerDemandeArret().
+     */
+    public void demanderArret() {
+        arretDemande = true;
+    }
+
+    /**
+     * Annule la demande d'arrêt, pour que les recherches suivantes puissent se dérouler normalement.
+     */
+    public void annulerDemandeArret() {
+        arretDemande = false;
+    }
+
+    /**
+     * @return true si la dernière recherche a été interrompue avant la fin
+     */
+    public boolean isInterrompue() {
+        return rechercheInterrompue;
+    }
+
+    /**
+     * Ajoute un observateur prévenu à la fin de chaque recherche lancée par rechercher(), et à la fin de chaque
+     * itération de l'approfondissement itératif.
+     *
+     * @param listener l'observateur
+     */
+    public void addSearchListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeSearchListener(SearchListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -30,13 +469,25 @@ public class Ia {
      * @return la colonne que l'ia souhaite poser une pièce et sa valeur de l'heuristique
      */
     public int[] playMiniMax(Puissance4 game, int profondeur, boolean isMax, Player p) {
+        noeuds++;
+        if(arretDemande) rechercheInterrompue = true;
+        if(rechercheInterrompue) return new int[]{-1, 0}; // le résultat sera ignoré
+        profondeurAtteinte = Math.max(profondeurAtteinte, profondeur);
         if(game.isOver()) {
             if(game.getWinner() == null) return new int[]{-1, 0}; // si égalité, renvoie 0
-            else return new int[]{-1, game.evaluation(p)}; // sinon la valeur de l'heuristique du plateau
+            else return new int[]{-1, evaluer(game, p)}; // sinon la valeur de l'heuristique du plateau
         }
-
         // La liste des colonnes valide dont l'ia peut poser une pièce
         List<Integer> colonnesValide = game.getAvailablePlace();
+        if(profondeur < this.profondeurMax) {
+            // Si le joueur qui a la main peut gagner tout de suite, inutile de chercher plus loin
+            int coupGagnant = game.findWinningMove();
+            if(coupGagnant >= 0) return new int[]{coupGagnant, isMax ? Integer.MAX_VALUE : Integer.MIN_VALUE};
+            // Sinon il ne joue que les coups qui ne donnent pas la victoire à l'adversaire au coup suivant
+            int autorises = game.getCoupsNonPerdants();
+            if(autorises == 0 && profondeur > 0) return new int[]{-1, isMax ? Integer.MIN_VALUE : Integer.MAX_VALUE};
+            if(autorises != 0) colonnesValide.removeIf(c -> (autorises & (1 << c)) == 0);
+        }
         // On attribut un colonne au hasard au cas où l'algo n'arrive pas à choisir
         int col = colonnesValide.get(rand.nextInt(colonnesValide.size()));
         int value = isMax ? Integer.MIN_VALUE : Integer.MAX_VALUE;
@@ -63,11 +514,11 @@ public class Ia {
     public int minValue(Puissance4 game, int profondeur, int moveIndex, Player p) {
         int minValue;
         if(profondeur == this.profondeurMax) {
-            minValue = game.evaluation(p);
+            minValue = evaluer(game, p);
         } else {
-            Puissance4 copie = new Puissance4(game); // on crée une copie du jeu
-            copie.placePiece(moveIndex);
-            minValue = playMiniMax(copie, profondeur + 1, true, p)[1]; // recup la valeur minimal
+            game.play(moveIndex); // on joue le coup puis on l'annule une fois évalué
+            minValue = playMiniMax(game, profondeur + 1, true, p)[1]; // recup la valeur minimal
+            game.undo();
         }
         return minValue;
     }
@@ -75,47 +526,396 @@ public class Ia {
     public int maxValue(Puissance4 game, int profondeur, int moveIndex, Player p) {
         int maxValue;
         if(profondeur == this.profondeurMax) {
-            maxValue = game.evaluation(p);
+            maxValue = evaluer(game, p);
         } else {
-            Puissance4 copie = new Puissance4(game); // on crée une copie du jeu
-            copie.placePiece(moveIndex);
-            maxValue = playMiniMax(copie, profondeur + 1, false, p)[1]; // recup la valeur minimal
+            game.play(moveIndex); // on joue le coup puis on l'annule une fois évalué
+            maxValue = playMiniMax(game, profondeur + 1, false, p)[1]; // recup la valeur minimal
+            game.undo();
         }
         return maxValue;
     }
 
 
+    /**
+     * Utilise l'algo alpha-beta en approfondissement itératif : on recherche à la profondeur 1, 2, 3...
+     * jusqu'à ce que le temps accordé soit écoulé. Le meilleur coup d'une itération est essayé
+     * en premier à l'itération suivante.
+     *
+     * @param game          une partie de Puissance 4
+     * @param p             le joueur qui veut utiliser l'algo (normalement un objet de class Computer)
+     * @param tempsMs       le temps de réflexion accordé (en ms)
+     * @param profondeurMax la profondeur à ne pas dépasser
+     * @return la colonne et la valeur de l'heuristique trouvées par la dernière itération terminée
+     */
+    public int[] playIterativeDeepening(Puissance4 game, Player p, long tempsMs, int profondeurMax) {
+        this.chronometre = true;
+        this.deadline = System.nanoTime() + tempsMs * 1_000_000L;
+        int[] meilleur = approfondissementIteratif(game, p, profondeurMax);
+        this.chronometre = false;
+        return meilleur;
+    }
+
+    /**
+     * Utilise l'algo alpha-beta en approfondissement itératif sans limite de temps : la recherche s'arrête
+     * à la profondeur max, ou à la dernière itération terminée lorsqu'un autre thread appelle demanderArret().
+     *
+     * @param game          une partie de Puissance 4
+     * @param p             le joueur qui veut utiliser l'algo (normalement un objet de class Computer)
+     * @param profondeurMax la profondeur à ne pas dépasser
+     * @return la colonne et la valeur de l'heuristique trouvées par la dernière itération terminée
+     */
+    public int[] playIterativeDeepening(Puissance4 game, Player p, int profondeurMax) {
+        return approfondissementIteratif(game, p, profondeurMax);
+    }
+
+    /**
+     * Boucle de l'approfondissement itératif, avec le moteur choisi (cf. setMoteur). Pour le moteur Lazy SMP,
+     * les threads auxiliaires sont lancés avant la 1ère itération et arrêtés après la dernière.
+     *
+     * @param game          une partie de Puissance 4
+     * @param p             le joueur qui veut utiliser l'algo
+     * @param profondeurMax la profondeur à ne pas dépasser
+     * @return la colonne et la valeur de l'heuristique trouvées par la dernière itération terminée
+     */
+    private int[] approfondissementIteratif(Puissance4 game, Player p, int profondeurMax) {
+        int profondeurInitiale = this.profondeurMax;
+        // inutile d'aller plus loin que le nombre de cases encore vides
+        int limite = Math.max(1, Math.min(profondeurMax, Puissance4.NB_COL * Puissance4.NB_ROW - game.getNbCoups()));
+        int[] meilleur = null;
+        this.rechercheInterrompue = false;
+        this.derniereProfondeur = 0;
+        List<Ia> auxiliaires = new ArrayList<>();
+        List<ForkJoinTask<?>> taches = new ArrayList<>();
+        if(moteur == Moteur.LAZY_SMP) {
+            for(int i = 1; i < nbThreads; i++) {
+                Ia auxiliaire = new Ia(this, null);
+                Puissance4 copie = new Puissance4(game);
+                // un thread sur deux commence une profondeur plus loin, pour que les threads ne parcourent
+                // pas le même arbre dans le même ordre
+                int decalage = i % 2;
+                auxiliaires.add(auxiliaire);
+                taches.add(getPool(nbThreads - 1).submit(() -> auxiliaire.rechercheAuxiliaire(copie, p, limite, decalage)));
+            }
+        }
+        for(int profondeur = 1; profondeur <= limite; profondeur++) {
+            // le temps est écoulé : inutile de commencer une itération qui sera interrompue
+            if(meilleur != null && chronometre && System.nanoTime() - deadline > 0) break;
+            this.profondeurMax = profondeur;
+            this.coupPrioritaire = meilleur == null ? -1 : meilleur[0];
+            IterationEvent event = new IterationEvent();
+            event.begin();
+            int[] result;
+            if(moteur == Moteur.PARALLELE) result = playAlphaBetaParallele(game, p, nbThreads);
+            else if(moteur == Moteur.NEGAMAX) result = iterationNegamax(game, p, meilleur == null);
+            else result = playAlphaBeta(game, 0, true, p, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if(event.shouldCommit()) {
+                event.profondeur = profondeur;
+                event.colonne = result[0];
+                event.score = result[1];
+                event.noeuds = noeuds;
+                event.interrompue = rechercheInterrompue;
+                event.commit();
+            }
+            if(rechercheInterrompue) break; // itération incomplète, on garde le résultat précédent
+            meilleur = result;
+            derniereProfondeur = profondeur;
+            for(SearchListener listener : listeners) listener.onIteration(profondeur, result[0], result[1], noeuds);
+            // une victoire ou une défaite forcée ne changera plus avec la profondeur
+            if(result[1] == Integer.MAX_VALUE || result[1] == Integer.MIN_VALUE) break;
+        }
+        for(Ia auxiliaire : auxiliaires) auxiliaire.arretDemande = true;
+        for(int i = 0; i < taches.size(); i++) {
+            taches.get(i).join();
+            ajouteStats(auxiliaires.get(i));
+        }
+        this.coupPrioritaire = -1;
+        this.profondeurMax = profondeurInitiale;
+        return meilleur;
+    }
+
+    /**
+     * Boucle d'un thread auxiliaire du moteur Lazy SMP : approfondissement itératif sans limite de temps,
+     * jusqu'à la profondeur limite ou jusqu'à ce que l'ia parente demande l'arrêt. Le résultat n'est pas
+     * utilisé, seules les entrées ajoutées dans la table de transposition partagée profitent à l'ia parente.
+     *
+     * @param game     la copie de la partie propre à ce thread
+     * @param p        le joueur qui veut utiliser l'algo
+     * @param limite   la profondeur à ne pas dépasser
+     * @param decalage le nombre de profondeurs sautées au départ
+     */
+    private void rechercheAuxiliaire(Puissance4 game, Player p, int limite, int decalage) {
+        for(int profondeur = 1 + decalage; profondeur <= limite; profondeur++) {
+            this.profondeurMax = profondeur;
+            playAlphaBeta(game, 0, true, p, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if(rechercheInterrompue) return;
+        }
+    }
+
+    /**
+     * @return la profondeur de la dernière itération terminée par playIterativeDeepening
+     */
+    public int getDerniereProfondeur() {
+        return derniereProfondeur;
+    }
+
+    /**
+     * Indique si la recherche doit s'arrêter, parce qu'un autre thread l'a demandé ou que le temps est écoulé.
+     * L'horloge n'est consultée que tous les 1024 noeuds et jamais pendant la 1ère itération,
+     * pour qu'il y ait toujours un coup à jouer.
+     *
+     * @return true si la recherche doit s'arrêter
+     */
+    private boolean doitArreter() {
+        noeuds++;
+        if(rechercheInterrompue) return true;
+        if(arretDemande || (parent != null && parent.arretDemande)) {
+            rechercheInterrompue = true;
+        } else if(chronometre && (noeuds & 1023) == 0 && profondeurMax > 1 && System.nanoTime() - deadline > 0) {
+            rechercheInterrompue = true;
+        }
+        return rechercheInterrompue;
+    }
+
+    /**
+     * Evalue le plateau du point de vue du joueur p et compte l'appel. La valeur est d'abord cherchée dans le cache
+     * d'évaluation, où elle est rangée du point de vue du joueur qui a la main (l'heuristique d'un joueur est
+     * l'opposée de celle de son adversaire) sous la clé canonique de la position : une position et sa symétrique
+     * ont la même valeur.
+     */
+    private int evaluer(Puissance4 game, Player p) {
+        evaluations++;
+        // les fins de partie sont évaluées sans parcourir le plateau
+        if(cacheEvaluation == null || game.isOver()) return game.evaluation(p);
+        long cle = game.getCleCanonique() ^ (CLE_MODE * game.getModeEvaluation().ordinal());
+        long donnees = cacheEvaluation.probe(cle);
+        int valeur;
+        if(donnees != 0) {
+            valeur = EvaluationCache.valeur(donnees);
+        } else {
+            valeur = game.evaluation(game.getCurrentPlayer());
+            cacheEvaluation.store(cle, valeur);
+        }
+        return p == game.getCurrentPlayer() ? valeur : -valeur;
+    }
+
+    /**
+     * Utilise l'algo alpha-beta avec le moteur choisi (cf. setMoteur) pour déterminer la colonne
+     * que l'ia souhaite jouer, à la profondeur max de l'ia.
+     *
+     * @param game une partie de Puissance 4
+     * @param p    le joueur qui veut utiliser l'algo (normalement un objet de class Computer)
+     * @return la colonne que l'ia souhaite poser une pièce et sa valeur de l'heuristique
+     */
+    public int[] playAlphaBeta(Puissance4 game, Player p) {
+        if(moteur == Moteur.PARALLELE) return playAlphaBetaParallele(game, p, nbThreads);
+        // les moteurs Lazy SMP et negamax reposent sur l'approfondissement itératif, sans limite de temps ici
+        if(moteur == Moteur.LAZY_SMP || moteur == Moteur.NEGAMAX) {
+            return approfondissementIteratif(game, p, this.profondeurMax);
+        }
+        return playAlphaBeta(game, 0, true, p, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Alpha-beta parallèle à la racine, sur le principe "Young Brothers Wait" : le 1er coup (l'aîné) est
+     * recherché seul pour établir une borne alpha, puis ses frères sont répartis entre les threads d'un
+     * ForkJoinPool. La borne alpha est partagée, chaque thread profite des coups déjà trouvés par les autres.
+     * <p>
+     * Le résultat est celui de playAlphaBeta(game, 0, true, p, MIN, MAX) : même valeur, et à valeur égale
+     * le coup retenu est le 1er dans l'ordre d'exploration, comme en séquentiel.
+     * </p>
+     *
+     * @param game      une partie de Puissance 4
+     * @param p         le joueur qui veut utiliser l'algo (normalement un objet de class Computer)
+     * @param nbThreads le nombre de threads qui se partagent les coups de la racine
+     * @return la colonne que l'ia souhaite poser une pièce et sa valeur de l'heuristique
+     */
+    public int[] playAlphaBetaParallele(Puissance4 game, Player p, int nbThreads) {
+        if(game.isOver() || this.profondeurMax == 0) {
+            return playAlphaBeta(game, 0, true, p, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        noeuds++;
+        // Comme en séquentiel, une victoire immédiate est jouée tout de suite
+        int coupGagnant = game.findWinningMove();
+        if(coupGagnant >= 0) return new int[]{coupGagnant, Integer.MAX_VALUE};
+        int coupTable = coupPrioritaire;
+        if(coupTable < 0 && table != null) {
+            long entree = table.probe(game.getCleCanonique());
+            if(entree != 0) coupTable = game.coupCanonique(TranspositionTable.move(entree));
+        }
+        int[] coups = coupsParProfondeur[0];
+        int nbCoups = ordering.orderMoves(game, 0, coupTable, coups);
+        nbCoups = filtrerCoups(coups, nbCoups, game.getCoupsNonPerdants());
+        int[] valeurs = new int[nbCoups];
+        boolean[] exactes = new boolean[nbCoups];
+
+        // L'aîné est recherché seul, avec une fenêtre complète
+        game.play(coups[0]);
+        valeurs[0] = playAlphaBeta(game, 1, false, p, Integer.MIN_VALUE, Integer.MAX_VALUE)[1];
+        game.undo();
+        exactes[0] = true;
+        if(rechercheInterrompue) return new int[]{coups[0], valeurs[0]}; // le résultat sera ignoré
+
+        // Ses frères sont répartis entre les threads
+        AtomicInteger alpha = new AtomicInteger(valeurs[0]);
+        List<RechercheFrere> freres = new ArrayList<>();
+        for(int i = 1; i < nbCoups; i++) {
+            freres.add(new RechercheFrere(new Ia(this, alpha), new Puissance4(game), coups[i], p));
+        }
+        getPool(nbThreads).invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(freres);
+            }
+        });
+        for(int i = 1; i < nbCoups; i++) {
+            RechercheFrere frere = freres.get(i - 1);
+            valeurs[i] = frere.valeur;
+            // en fail-soft, une valeur au-dessus de la borne alpha utilisée est exacte, sinon c'est un majorant
+            exactes[i] = frere.valeur > frere.ia.alphaVu;
+            ajouteStats(frere.ia);
+            if(frere.ia.rechercheInterrompue) rechercheInterrompue = true;
+        }
+        if(rechercheInterrompue) return new int[]{coups[0], valeurs[0]}; // le résultat sera ignoré
+
+        int meilleur = Integer.MIN_VALUE;
+        for(int valeur : valeurs) meilleur = Math.max(meilleur, valeur);
+        // Comme en séquentiel, si tous les coups sont perdants on joue au hasard
+        int col = coups[rand.nextInt(nbCoups)];
+        if(meilleur > Integer.MIN_VALUE) {
+            for(int i = 0; i < nbCoups; i++) {
+                if(valeurs[i] != meilleur) continue;
+                // un majorant égal au meilleur score peut cacher un coup aussi bon, placé avant dans l'ordre :
+                // on le vérifie avec une fenêtre nulle
+                if(!exactes[i]) {
+                    game.play(coups[i]);
+                    int verification = playAlphaBeta(game, 1, false, p, meilleur - 1, meilleur)[1];
+                    game.undo();
+                    if(verification < meilleur) continue;
+                }
+                col = coups[i];
+                break;
+            }
+        }
+        if(table != null) {
+            table.store(game.getCleCanonique(), this.profondeurMax, TranspositionTable.EXACT, meilleur,
+                    game.coupCanonique(col));
+        }
+        return new int[]{col, meilleur};
+    }
+
+    /**
+     * @param nbThreads le nombre de threads souhaité
+     * @return le pool de threads du moteur parallèle, recréé si le nombre de threads a changé
+     */
+    private ForkJoinPool getPool(int nbThreads) {
+        if(pool == null || pool.getParallelism() != nbThreads) {
+            if(pool != null) pool.shutdown();
+            pool = new ForkJoinPool(nbThreads);
+        }
+        return pool;
+    }
+
+    /**
+     * Recherche d'un coup de la racine par une ia auxiliaire, sur sa propre copie de la partie
+     */
+    private static class RechercheFrere extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Ia ia;
+        private final Puissance4 game;
+        private final int coup;
+        private final Player p;
+        private int valeur;
+
+        RechercheFrere(Ia ia, Puissance4 game, int coup, Player p) {
+            this.ia = ia;
+            this.game = game;
+            this.coup = coup;
+            this.p = p;
+        }
+
+        @Override
+        protected void compute() {
+            int alpha = ia.alphaPartage.get();
+            ia.alphaVu = alpha;
+            game.play(coup);
+            valeur = ia.playAlphaBeta(game, 1, false, p, alpha, Integer.MAX_VALUE)[1];
+            ia.alphaPartage.accumulateAndGet(valeur, Math::max);
+        }
+    }
+
     public int[] playAlphaBeta(Puissance4 game, int profondeur, boolean isMax, Player p, int alpha, int beta) {
+        if(doitArreter()) return new int[]{-1, 0}; // le résultat sera ignoré
+        if(profondeur > profondeurAtteinte) profondeurAtteinte = profondeur;
         if(game.isOver()) {
             if(game.getWinner() == null) return new int[]{-1, 0}; // si égalité, renvoie 0
-            else return new int[]{-1, game.evaluation(p)}; // sinon la valeur de l'heuristique du plateau
+            else return new int[]{-1, evaluer(game, p)}; // sinon la valeur de l'heuristique du plateau
         }
+        // Aux feuilles, la valeur est celle de l'heuristique du plateau
+        if(profondeur == this.profondeurMax) return new int[]{-1, evaluer(game, p)};
+        // Si le joueur qui a la main peut gagner tout de suite, inutile de chercher plus loin
+        int coupGagnant = game.findWinningMove();
+        if(coupGagnant >= 0) return new int[]{coupGagnant, isMax ? Integer.MAX_VALUE : Integer.MIN_VALUE};
+        // Sinon il ne joue que les coups qui ne donnent pas la victoire à l'adversaire au coup suivant
+        int autorises = game.getCoupsNonPerdants();
+        if(autorises == 0 && profondeur > 0) return new int[]{-1, isMax ? Integer.MIN_VALUE : Integer.MAX_VALUE};
 
-        // La liste des colonnes valide dont l'ia peut poser une pièce
-        List<Integer> colonnesValide = game.getAvailablePlace();
+        // Consulte la table de transposition
+        int profondeurRestante = this.profondeurMax - profondeur;
+        int alphaInitial = alpha;
+        int betaInitial = beta;
+        int coupTable = -1;
+        if(table != null) {
+            long entree = table.probe(game.getCleCanonique());
+            if(entree != 0) coupTable = game.coupCanonique(TranspositionTable.move(entree));
+            // à la racine on recherche toujours, pour être sûr de renvoyer un coup jouable
+            if(entree != 0 && profondeur > 0 && TranspositionTable.depth(entree) >= profondeurRestante) {
+                int score = TranspositionTable.score(entree);
+                int borne = TranspositionTable.bound(entree);
+                if(borne == TranspositionTable.EXACT) return new int[]{coupTable, score};
+                if(borne == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if(alpha >= beta) return new int[]{coupTable, score};
+            }
+        }
+        if(alphaPartage != null && profondeur == 1) alphaVu = Math.max(alphaVu, alpha);
+        // A la racine, le meilleur coup de l'itération précédente est essayé en premier
+        if(profondeur == 0 && coupPrioritaire >= 0) coupTable = coupPrioritaire;
+
+        // Les colonnes valides dont l'ia peut poser une pièce, dans l'ordre où elles seront explorées
+        int[] coups = coupsParProfondeur[profondeur];
+        int nbCoups = filtrerCoups(coups, ordering.orderMoves(game, profondeur, coupTable, coups), autorises);
         // On attribut un colonne au hasard au cas où l'algo n'arrive pas à choisir
-        int col = colonnesValide.get(rand.nextInt(colonnesValide.size()));
+        int col = coups[rand.nextInt(nbCoups)];
         int value = isMax ? Integer.MIN_VALUE : Integer.MAX_VALUE;
         // Pour chaque coup possible
-        for(int moveIndex : colonnesValide) {
-            int newValue = 0;
-            // recup la valeur de l'heuristique
-            if(profondeur == this.profondeurMax) {
-                newValue = game.evaluation(p);
-            } else {
-                // si profondeur max non atteint, on crée une copie du jeu, place une pièce
-                // a la colonne "moveIndex" et applique alpha-beta sur ce nouveau plateau de jeu
-                Puissance4 copie = new Puissance4(game);
-                copie.placePiece(moveIndex);
-                newValue = playAlphaBeta(copie, profondeur + 1, !isMax, p, alpha, beta)[1];
+        for(int i = 0; i < nbCoups; i++) {
+            int moveIndex = coups[i];
+            // Moteur parallèle : on profite de la borne alpha trouvée par les autres threads
+            if(alphaPartage != null && profondeur == 1) {
+                if(i > 0 && alphaPartage.get() > alpha) {
+                    alpha = alphaPartage.get();
+                    alphaInitial = Math.max(alphaInitial, alpha);
+                }
+                alphaVu = Math.max(alphaVu, alpha);
+                if(alpha >= beta) break; // le coup de la racine ne peut plus être le meilleur
             }
+            // on place une pièce a la colonne "moveIndex", applique alpha-beta sur ce plateau de jeu
+            // puis on annule le coup
+            game.play(moveIndex);
+            int newValue = playAlphaBeta(game, profondeur + 1, !isMax, p, alpha, beta)[1];
+            game.undo();
+            if(rechercheInterrompue) return new int[]{col, value}; // le résultat sera ignoré
+
             if(isMax) {
                 if(newValue > value) {
                     value = newValue;
                     col = moveIndex;
                 }
                 // elagage alpha-beta
-                if(newValue >= beta) break;
+                if(newValue >= beta) {
+                    enregistreCoupure(game, profondeur, moveIndex, i);
+                    break;
+                }
                 alpha = Math.max(alpha, newValue);
             } else {
                 if(newValue < value) {
@@ -123,10 +923,244 @@ public class Ia {
                     col = moveIndex;
                 }
                 // elagage alpha-beta
-                if(newValue <= alpha) break;
+                if(newValue <= alpha) {
+                    enregistreCoupure(game, profondeur, moveIndex, i);
+                    break;
+                }
                 beta = Math.min(beta, newValue);
             }
         }
+        if(table != null) {
+            int borne = TranspositionTable.EXACT;
+            if(value <= alphaInitial) borne = TranspositionTable.UPPER;
+            else if(value >= betaInitial) borne = TranspositionTable.LOWER;
+            table.store(game.getCleCanonique(), profondeurRestante, borne, value, game.coupCanonique(col));
+        }
         return new int[]{col, value}; // la colonne que l'ia souhaite jouer et sa valeur de l'heuristique
     }
+
+    /**
+     * Une itération du moteur negamax à la profondeur profondeurMax. La recherche commence avec une fenêtre
+     * d'aspiration centrée sur le score de l'itération précédente, élargie (de plus en plus) tant que le score
+     * tombe en dehors.
+     *
+     * @param game     une partie de Puissance 4
+     * @param p        le joueur qui veut utiliser l'algo, qui a la main
+     * @param premiere true pour la 1ère itération, qui n'a pas de score précédent
+     * @return la colonne choisie et son score, dans l'échelle de l'heuristique du point de vue de p
+     */
+    private int[] iterationNegamax(Puissance4 game, Player p, boolean premiere) {
+        int score;
+        if(premiere) {
+            score = negamax(game, 0, -Scores.INFINI, Scores.INFINI, 1, p);
+        } else {
+            long fenetre = Scores.FENETRE_ASPIRATION;
+            long alpha = Math.max(-Scores.INFINI, (long) scoreNegamax - fenetre);
+            long beta = Math.min(Scores.INFINI, (long) scoreNegamax + fenetre);
+            while(true) {
+                score = negamax(game, 0, (int) alpha, (int) beta, 1, p);
+                if(rechercheInterrompue) break;
+                fenetre *= 4;
+                if(score <= alpha && alpha > -Scores.INFINI) alpha = Math.max(-Scores.INFINI, (long) score - fenetre);
+                else if(score >= beta && beta < Scores.INFINI) beta = Math.min(Scores.INFINI, (long) score + fenetre);
+                else break;
+            }
+        }
+        if(!rechercheInterrompue) scoreNegamax = score;
+        return new int[]{coupRacine, Scores.versHeuristique(score)};
+    }
+
+    /**
+     * Negamax alpha-beta fail-soft avec recherche de la variation principale : le 1er coup est recherché avec la
+     * fenêtre (alpha, beta), les suivants avec une fenêtre nulle qui prouve seulement qu'ils ne font pas mieux,
+     * et ne sont recherchés à nouveau avec la fenêtre complète que si la preuve échoue.
+     * Le meilleur coup de la racine est rangé dans coupRacine, rien n'est alloué pendant la recherche.
+     *
+     * @param game       une partie de Puissance 4
+     * @param profondeur la profondeur actuelle (0 à la racine)
+     * @param alpha      la borne inférieure de la fenêtre, entre -Scores.INFINI et Scores.INFINI
+     * @param beta       la borne supérieure de la fenêtre
+     * @param signe      1 si le joueur p a la main, -1 sinon
+     * @param p          le joueur qui veut utiliser l'algo
+     * @return le score du point de vue du joueur qui a la main (cf. Scores)
+     */
+    private int negamax(Puissance4 game, int profondeur, int alpha, int beta, int signe, Player p) {
+        if(doitArreter()) return 0; // le résultat sera ignoré
+        if(profondeur > profondeurAtteinte) profondeurAtteinte = profondeur;
+        if(game.isOver()) {
+            // le joueur qui a la main n'a pas pu jouer : le coup précédent a gagné ou rempli le plateau
+            return game.getWinner() == null ? 0 : -Scores.victoire(profondeur);
+        }
+        if(profondeur == this.profondeurMax) {
+            int finDePartie = profondeur + Puissance4.NB_COL * Puissance4.NB_ROW - game.getNbCoups();
+            return signe * Scores.depuisHeuristique(evaluer(game, p), finDePartie);
+        }
+        int coupGagnant = game.findWinningMove();
+        if(coupGagnant >= 0) {
+            if(profondeur == 0) coupRacine = coupGagnant;
+            return Scores.victoire(profondeur + 1);
+        }
+        // tous les coups laissent une victoire à l'adversaire au coup suivant
+        int autorises = game.getCoupsNonPerdants();
+        if(autorises == 0 && profondeur > 0) return -Scores.victoire(profondeur + 2);
+
+        int profondeurRestante = this.profondeurMax - profondeur;
+        int alphaInitial = alpha;
+        int coupTable = -1;
+        if(table != null) {
+            long entree = table.probe(game.getCleCanonique());
+            if(entree != 0) coupTable = game.coupCanonique(TranspositionTable.move(entree));
+            if(entree != 0 && profondeur > 0 && TranspositionTable.depth(entree) >= profondeurRestante) {
+                int score = Scores.depuisTable(TranspositionTable.score(entree), profondeur);
+                int borne = TranspositionTable.bound(entree);
+                if(borne == TranspositionTable.EXACT) return score;
+                if(borne == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if(alpha >= beta) return score;
+            }
+        }
+        if(profondeur == 0 && coupPrioritaire >= 0) coupTable = coupPrioritaire;
+
+        int[] coups = coupsParProfondeur[profondeur];
+        int nbCoups = filtrerCoups(coups, ordering.orderMoves(game, profondeur, coupTable, coups), autorises);
+        int meilleur = -Scores.INFINI;
+        int col = coups[0];
+        for(int i = 0; i < nbCoups; i++) {
+            int coup = coups[i];
+            game.play(coup);
+            int valeur;
+            if(i == 0) {
+                valeur = -negamax(game, profondeur + 1, -beta, -alpha, -signe, p);
+            } else {
+                valeur = -negamax(game, profondeur + 1, -alpha - 1, -alpha, -signe, p);
+                if(valeur > alpha && valeur < beta) {
+                    valeur = -negamax(game, profondeur + 1, -beta, -alpha, -signe, p);
+                }
+            }
+            game.undo();
+            if(rechercheInterrompue) return 0; // le résultat sera ignoré
+
+            if(valeur > meilleur) {
+                meilleur = valeur;
+                col = coup;
+            }
+            if(valeur > alpha) alpha = valeur;
+            if(alpha >= beta) {
+                enregistreCoupure(game, profondeur, coup, i);
+                break;
+            }
+        }
+        if(profondeur == 0) coupRacine = col;
+        if(table != null) {
+            int borne = TranspositionTable.EXACT;
+            if(meilleur <= alphaInitial) borne = TranspositionTable.UPPER;
+            else if(meilleur >= beta) borne = TranspositionTable.LOWER;
+            table.store(game.getCleCanonique(), profondeurRestante, borne, Scores.versTable(meilleur, profondeur),
+                    game.coupCanonique(col));
+        }
+        return meilleur;
+    }
+
+    /**
+     * Retire des coups ordonnés ceux qui ne sont pas autorisés, sans changer l'ordre des autres.
+     *
+     * @param coups     les coups, dans l'ordre d'exploration
+     * @param nbCoups   le nombre de coups
+     * @param autorises les colonnes autorisées (cf. Puissance4.getCoupsNonPerdants), 0 pour tout garder
+     * @return le nombre de coups restants
+     */
+    private static int filtrerCoups(int[] coups, int nbCoups, int autorises) {
+        if(autorises == 0) return nbCoups; // tous les coups perdent, on les garde pour en choisir un
+        int n = 0;
+        for(int i = 0; i < nbCoups; i++) {
+            if((autorises & (1 << coups[i])) != 0) coups[n++] = coups[i];
+        }
+        return n;
+    }
+
+    /**
+     * Met à jour les statistiques de coupures et prévient l'ordonnancement des coups.
+     *
+     * @param game       la partie, dans l'état du noeud coupé
+     * @param profondeur la profondeur du noeud
+     * @param coup       le coup qui a provoqué la coupure
+     * @param rang       le rang du coup dans l'ordre d'exploration (0 = 1er coup exploré)
+     */
+    private void enregistreCoupure(Puissance4 game, int profondeur, int coup, int rang) {
+        coupuresParRang[rang]++;
+        ordering.onCutoff(game, profondeur, coup, this.profondeurMax - profondeur);
+    }
+
+    /**
+     * @return l'ordonnancement des coups utilisé par alpha-beta
+     */
+    public MoveOrdering getMoveOrdering() {
+        return ordering;
+    }
+
+    /**
+     * Remplace l'ordonnancement des coups utilisé par alpha-beta.
+     *
+     * @param ordering le nouvel ordonnancement (ex: CenterFirstOrdering pour un ordre statique)
+     */
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Oublie les recherches précédentes en vidant la table de transposition et l'ordonnancement des coups, par exemple
+     * au début d'une nouvelle partie. Ne doit pas être appelée pendant une recherche.
+     */
+    public void oublierRecherches() {
+        if(table != null) table.clear();
+        ordering.clear();
+        positionsPonderees.clear();
+    }
+
+    /**
+     * Remet à 0 les compteurs de noeuds et de coupures, ainsi que ceux de la table de transposition
+     */
+    public void resetStats() {
+        noeuds = 0;
+        evaluations = 0;
+        profondeurAtteinte = 0;
+        Arrays.fill(coupuresParRang, 0);
+        if(table != null) table.resetStats();
+        if(cacheEvaluation != null) cacheEvaluation.resetStats();
+    }
+
+    /**
+     * Ajoute les compteurs d'une ia auxiliaire à ceux de cette ia.
+     *
+     * @param auxiliaire une ia auxiliaire dont la recherche est terminée
+     */
+    private void ajouteStats(Ia auxiliaire) {
+        noeuds += auxiliaire.noeuds;
+        evaluations += auxiliaire.evaluations;
+        profondeurAtteinte = Math.max(profondeurAtteinte, auxiliaire.profondeurAtteinte);
+        for(int i = 0; i < coupuresParRang.length; i++) coupuresParRang[i] += auxiliaire.coupuresParRang[i];
+    }
+
+    /**
+     * @return le nombre de noeuds explorés depuis le dernier resetStats()
+     */
+    public long getNoeuds() {
+        return noeuds;
+    }
+
+    /**
+     * @return la proportion des coupures alpha-beta provoquées par le 1er coup exploré (entre 0 et 1),
+     * plus elle est proche de 1, meilleur est l'ordonnancement des coups
+     */
+    public double getFirstMoveCutoffRate() {
+        long coupures = Arrays.stream(coupuresParRang).sum();
+        return coupures == 0 ? 0 : (double) coupuresParRang[0] / coupures;
+    }
+
+    /**
+     * @return le nombre d'appels à l'heuristique du plateau depuis le dernier resetStats()
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
 }
@@ -0,0 +1,30 @@
+package ia;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evènement JFR d'une itération de l'approfondissement itératif.
+ *
+ * @author Xiumin LIN
+ */
+@Name("puissance4.Iteration")
+@Label("Itération de l'approfondissement itératif")
+@Category({"Puissance 4", "IA"})
+final class IterationEvent extends jdk.jfr.Event {
+    @Label("Profondeur")
+    int profondeur;
+
+    @Label("Colonne")
+    int colonne;
+
+    @Label("Score")
+    int score;
+
+    @Label("Noeuds cumulés")
+    long noeuds;
+
+    @Label("Interrompue")
+    boolean interrompue;
+}
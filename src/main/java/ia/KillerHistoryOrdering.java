@@ -0,0 +1,94 @@
+package ia;
+
+import game.Puissance4;
+
+import java.util.Arrays;
+
+/**
+ * Ordre dynamique des coups, appris pendant la recherche :
+ * <p>
+ * - le meilleur coup connu (table de transposition ou itération précédente) ; <br/>
+ * - les 2 "killer moves" de la profondeur, c'est-à-dire les derniers coups ayant provoqué une coupure
+ * à cette même profondeur dans une autre branche ; <br/>
+ * - les autres coups triés par la table d'historique, qui cumule pour chaque joueur et chaque case
+ * les coupures qu'elle a provoquées (pondérées par la profondeur restante). <br/>
+ * A score égal, les colonnes du centre passent en premier.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class KillerHistoryOrdering implements MoveOrdering {
+    private static final int NB_CASES = Puissance4.NB_COL * Puissance4.NB_ROW;
+    private static final int PRIORITE_TABLE = Integer.MAX_VALUE;
+    private static final int PRIORITE_KILLER = Integer.MAX_VALUE - 2;
+    /**
+     * Au-delà de cette valeur, toute la table d'historique est divisée par 2 pour qu'elle reste sous les killers
+     */
+    private static final int HISTORIQUE_MAX = 1 << 24;
+
+    private final int[][] killers = new int[NB_CASES + 1][2];
+    /**
+     * historique[0] pour les coups du joueur 1, historique[1] pour ceux du joueur 2, indexés par case
+     */
+    private final int[][] historique = new int[2][NB_CASES];
+    /**
+     * Les scores des coups en cours de tri, un tableau par profondeur pour ne rien allouer
+     */
+    private final int[][] scores = new int[NB_CASES + 1][Puissance4.NB_COL];
+
+    public KillerHistoryOrdering() {
+        clear();
+    }
+
+    @Override
+    public int orderMoves(Puissance4 game, int ply, int coupTable, int[] coups) {
+        int[] scoresPly = scores[ply];
+        int[] historiqueJoueur = historique[game.isP1Turn() ? 0 : 1];
+        int n = 0;
+        for(int col : CenterFirstOrdering.CENTRE_D_ABORD) {
+            int row = game.nextEmptyCaseRow(col);
+            if(row < 0) continue;
+            int score;
+            if(col == coupTable) score = PRIORITE_TABLE;
+            else if(col == killers[ply][0]) score = PRIORITE_KILLER;
+            else if(col == killers[ply][1]) score = PRIORITE_KILLER - 1;
+            else score = historiqueJoueur[caseIndex(col, row)];
+            // tri par insertion (au plus 7 coups), stable pour garder l'ordre centre d'abord à score égal
+            int i = n++;
+            while(i > 0 && scoresPly[i - 1] < score) {
+                coups[i] = coups[i - 1];
+                scoresPly[i] = scoresPly[i - 1];
+                i--;
+            }
+            coups[i] = col;
+            scoresPly[i] = score;
+        }
+        return n;
+    }
+
+    @Override
+    public void onCutoff(Puissance4 game, int ply, int coup, int profondeurRestante) {
+        if(killers[ply][0] != coup) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = coup;
+        }
+        int[] historiqueJoueur = historique[game.isP1Turn() ? 0 : 1];
+        int index = caseIndex(coup, game.nextEmptyCaseRow(coup));
+        historiqueJoueur[index] += profondeurRestante * profondeurRestante;
+        if(historiqueJoueur[index] > HISTORIQUE_MAX) {
+            for(int[] h : historique) {
+                for(int i = 0; i < h.length; i++) h[i] /= 2;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for(int[] k : killers) Arrays.fill(k, -1);
+        for(int[] h : historique) Arrays.fill(h, 0);
+    }
+
+    private static int caseIndex(int col, int row) {
+        return col * Puissance4.NB_ROW + row;
+    }
+}
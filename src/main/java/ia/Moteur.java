@@ -0,0 +1,27 @@
+package ia;
+
+/**
+ * Enumerate the different search engines an ia can use for alpha-beta
+ *
+ * @author Xiumin LIN
+ */
+public enum Moteur {
+    /**
+     * Alpha-beta sur un seul thread
+     */
+    SEQUENTIEL,
+    /**
+     * Alpha-beta dont les coups de la racine sont répartis entre plusieurs threads
+     */
+    PARALLELE,
+    /**
+     * Approfondissement itératif lancé en même temps sur plusieurs threads ("Lazy SMP") à des profondeurs
+     * décalées, les threads ne communiquent que par la table de transposition partagée
+     */
+    LAZY_SMP,
+    /**
+     * Negamax en approfondissement itératif avec recherche de la variation principale (PVS) et fenêtres
+     * d'aspiration, sur une échelle de scores symétrique
+     */
+    NEGAMAX
+}
@@ -0,0 +1,41 @@
+package ia;
+
+import game.Puissance4;
+
+/**
+ * Etape de l'algo alpha-beta qui décide dans quel ordre les coups d'un noeud sont explorés.
+ * Plus le meilleur coup est exploré tôt, plus les coupures alpha-beta arrivent tôt.
+ *
+ * @author Xiumin LIN
+ */
+@FunctionalInterface
+public interface MoveOrdering {
+    /**
+     * Range les colonnes jouables dans l'ordre où elles doivent être explorées.
+     *
+     * @param game      la partie, dans l'état du noeud à explorer
+     * @param ply       la profondeur du noeud depuis la racine
+     * @param coupTable le meilleur coup connu pour cette position (table de transposition
+     *                  ou itération précédente), -1 si aucun
+     * @param coups     le tableau (de taille NB_COL) à remplir avec les colonnes ordonnées
+     * @return le nombre de coups placés dans le tableau
+     */
+    int orderMoves(Puissance4 game, int ply, int coupTable, int[] coups);
+
+    /**
+     * Signale qu'un coup a provoqué une coupure alpha-beta, la partie est dans l'état du noeud coupé.
+     *
+     * @param game               la partie, dans l'état du noeud où la coupure a eu lieu
+     * @param ply                la profondeur du noeud depuis la racine
+     * @param coup               la colonne qui a provoqué la coupure
+     * @param profondeurRestante la profondeur restante à ce noeud
+     */
+    default void onCutoff(Puissance4 game, int ply, int coup, int profondeurRestante) {
+    }
+
+    /**
+     * Oublie ce qui a été appris lors des recherches précédentes
+     */
+    default void clear() {
+    }
+}
@@ -1,5 +1,7 @@
 package ia;
 
+import game.Puissance4;
+
 /**
  * Enumerate the different possible levels of an ia
  *
@@ -8,16 +10,32 @@ package ia;
 public enum Niveau {
     FAIBLE(3),
     MOYEN(6),
-    FORT(9);
+    FORT(9),
+    CHRONO(Puissance4.NB_COL * Puissance4.NB_ROW, 1000); // approfondissement itératif, 1 s par coup
 
     private final int profondeurDeRecherche;
+    /**
+     * Le temps de réflexion (en ms) accordé à l'ia pour chaque coup, 0 si le niveau est défini par sa profondeur
+     */
+    private final long tempsParCoup;
 
     /**
      * Constructeur par défaut
      * @param profondeur la prodondeur max utilisé dans l'algo MinMax ou AlphaBeta
      */
     Niveau(int profondeur){
-        profondeurDeRecherche = profondeur;
+        this(profondeur, 0);
+    }
+
+    /**
+     * Constructeur d'un niveau limité par le temps : l'ia approfondit sa recherche (1, 2, 3...)
+     * tant que le temps accordé n'est pas écoulé.
+     * @param profondeur la prodondeur max que l'approfondissement itératif peut atteindre
+     * @param tempsParCoup le temps de réflexion (en ms) accordé pour chaque coup
+     */
+    Niveau(int profondeur, long tempsParCoup){
+        this.profondeurDeRecherche = profondeur;
+        this.tempsParCoup = tempsParCoup;
     }
 
     /**
@@ -26,4 +44,18 @@ public enum Niveau {
     public int getProfondeur() {
         return profondeurDeRecherche;
     }
+
+    /**
+     * @return le temps de réflexion (en ms) accordé pour chaque coup, 0 si le niveau n'est pas limité par le temps
+     */
+    public long getTempsParCoup() {
+        return tempsParCoup;
+    }
+
+    /**
+     * @return true si le niveau est limité par le temps plutôt que par la profondeur
+     */
+    public boolean isChronometre() {
+        return tempsParCoup > 0;
+    }
 }
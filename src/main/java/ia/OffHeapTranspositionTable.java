@@ -0,0 +1,159 @@
+package ia;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Table de transposition hors du tas : les entrées (16 octets chacune) sont rangées dans un ByteBuffer direct,
+ * une table de plusieurs centaines de Mo n'alourdit donc ni le tas ni le travail du ramasse-miettes.
+ * <p>
+ * Chaque entrée porte la génération de la table au moment où elle a été écrite (bits 46-53 des données).
+ * clear() se contente de passer à la génération suivante, en temps constant : les entrées d'une génération
+ * précédente sont vues comme absentes par probe et toujours remplacées par store. La mémoire n'est réellement
+ * effacée que lorsque le compteur de génération fait le tour.
+ * </p>
+ * <p>
+ * Les entrées portent aussi l'âge de la recherche qui les a écrites (bits 54-61), cf. nouvelleRecherche.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class OffHeapTranspositionTable implements TranspositionTable {
+    /**
+     * Taille maximale de la table : un ByteBuffer est indexé par un int
+     */
+    public static final int TAILLE_MAX_MO = 1024;
+    private static final int OCTETS_PAR_ENTREE = 16;
+    private static final int DECALAGE_GENERATION = 46;
+    private static final int GENERATION_MAX = 0xFF;
+    private static final long MASQUE_GENERATION = (long) GENERATION_MAX << DECALAGE_GENERATION;
+    private static final int DECALAGE_AGE = 54;
+    private static final int AGE_MAX = 0xFF;
+    private static final long MASQUE_AGE = (long) AGE_MAX << DECALAGE_AGE;
+
+    private final LongBuffer entrees;
+    private final int masque;
+    private final Remplacement remplacement;
+    private long generation;
+    /**
+     * L'âge de la recherche en cours, déjà décalé à sa place dans les données
+     */
+    private long age;
+    private long hits;
+    private long misses;
+    private int occupees;
+
+    /**
+     * Constructeur par défaut. Le nombre d'entrées est la plus grande puissance de 2 qui tient dans la taille
+     * demandée (ex: 64 Mo pour 2^22 entrées, 100 Mo aussi).
+     *
+     * @param megaOctets   la taille de la table en Mo, entre 1 et TAILLE_MAX_MO
+     * @param remplacement la politique de remplacement des entrées
+     * @throws IllegalArgumentException si la taille n'est pas entre 1 et TAILLE_MAX_MO
+     */
+    public OffHeapTranspositionTable(int megaOctets, Remplacement remplacement) {
+        if(megaOctets < 1 || megaOctets > TAILLE_MAX_MO) {
+            throw new IllegalArgumentException("taille de table invalide : " + megaOctets + " Mo (1 à "
+                    + TAILLE_MAX_MO + " Mo)");
+        }
+        int taille = Integer.highestOneBit((int) ((long) megaOctets * 1024 * 1024 / OCTETS_PAR_ENTREE));
+        this.entrees = ByteBuffer.allocateDirect(taille * OCTETS_PAR_ENTREE).order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+        this.masque = taille - 1;
+        this.remplacement = remplacement;
+    }
+
+    @Override
+    public long probe(long cle) {
+        int i = index(cle);
+        long donnees = entrees.get(i + 1);
+        if(donnees != 0 && (entrees.get(i) ^ donnees) == cle && (donnees & MASQUE_GENERATION) == generation) {
+            hits++;
+            return donnees;
+        }
+        misses++;
+        return 0;
+    }
+
+    @Override
+    public void store(long cle, int profondeur, int borne, int score, int coup) {
+        int i = index(cle);
+        long ancienne = entrees.get(i + 1);
+        if(ancienne == 0 || (ancienne & MASQUE_GENERATION) != generation) {
+            occupees++; // entrée vide ou d'une partie précédente : toujours remplacée
+        } else if(remplacement == Remplacement.PROFONDEUR && (entrees.get(i) ^ ancienne) != cle
+                && (ancienne & MASQUE_AGE) == age && TranspositionTable.depth(ancienne) > profondeur) {
+            return; // on garde l'entrée la plus profonde de la recherche en cours
+        }
+        long donnees = TranspositionTable.compacter(profondeur, borne, score, coup) | generation | age;
+        entrees.put(i, cle ^ donnees);
+        entrees.put(i + 1, donnees);
+    }
+
+    private int index(long cle) {
+        return ((int) cle & masque) << 1;
+    }
+
+    /**
+     * Passe à l'âge suivant (modulo 256, comme ArrayTranspositionTable)
+     */
+    @Override
+    public void nouvelleRecherche() {
+        age = (((age >>> DECALAGE_AGE) + 1) & AGE_MAX) << DECALAGE_AGE;
+    }
+
+    /**
+     * Vide la table en temps constant, en passant à la génération suivante, et remet les compteurs à 0
+     */
+    @Override
+    public void clear() {
+        long suivante = (generation >>> DECALAGE_GENERATION) + 1;
+        if(suivante > GENERATION_MAX) {
+            // le compteur a fait le tour : les entrées de la génération 0 redeviendraient valides
+            for(int i = 0; i < entrees.capacity(); i++) {
+                entrees.put(i, 0L);
+            }
+            suivante = 0;
+        }
+        generation = suivante << DECALAGE_GENERATION;
+        occupees = 0;
+        resetStats();
+    }
+
+    @Override
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public int capacite() {
+        return masque + 1;
+    }
+
+    /**
+     * @return la proportion des entrées écrites depuis le dernier clear(), approximative si la table est partagée
+     */
+    @Override
+    public double getFillRate() {
+        return Math.min(1, (double) occupees / capacite());
+    }
+
+    /**
+     * @return la génération courante, incrémentée par chaque clear()
+     */
+    public int getGeneration() {
+        return (int) (generation >>> DECALAGE_GENERATION);
+    }
+}
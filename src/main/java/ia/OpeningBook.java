@@ -0,0 +1,116 @@
+package ia;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Livre d'ouvertures : le meilleur coup déjà calculé pour les positions du début de partie.
+ * <p>
+ * Le livre est un fichier binaire (cf. OpeningBookBuilder) projeté en mémoire avec un MappedByteBuffer :
+ * l'ouvrir ne lit rien, seules les pages consultées sont chargées par le système. Après un en-tête de
+ * TAILLE_ENTETE octets (magic, version, nombre d'entrées), chaque entrée occupe TAILLE_ENTREE octets :
+ * la clé canonique de la position (long, cf. Puissance4.getCleCanonique), le score (int), le coup de la forme
+ * canonique (short) et la profondeur de recherche (short). Une position et sa symétrique n'occupent donc qu'une
+ * entrée. Les entrées sont triées par clé pour être cherchées par dichotomie.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x50344F42; // "P4OB"
+    static final int VERSION = 2; // 2 : positions rangées sous leur clé canonique
+    static final int TAILLE_ENTETE = 16;
+    static final int TAILLE_ENTREE = 16;
+    /**
+     * Propriété système donnant le chemin du livre utilisé par défaut
+     */
+    public static final String PROPRIETE_FICHIER = "puissance4.livre";
+    public static final String FICHIER_PAR_DEFAUT = "ouvertures.bin";
+
+    private final MappedByteBuffer buffer;
+    private final int nbEntrees;
+
+    private OpeningBook(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if(buffer.capacity() < TAILLE_ENTETE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Le fichier n'est pas un livre d'ouvertures valide");
+        }
+        this.nbEntrees = buffer.getInt(8);
+        if(buffer.capacity() < TAILLE_ENTETE + (long) nbEntrees * TAILLE_ENTREE) {
+            throw new IllegalArgumentException("Le livre d'ouvertures est tronqué");
+        }
+    }
+
+    /**
+     * Projette en mémoire un livre d'ouvertures.
+     *
+     * @param fichier le chemin du livre
+     * @return le livre
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static OpeningBook ouvrir(Path fichier) throws IOException {
+        try(FileChannel channel = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            // la projection reste valide après la fermeture du channel
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return le livre désigné par la propriété système PROPRIETE_FICHIER (FICHIER_PAR_DEFAUT sinon),
+     * ouvert une seule fois, ou null s'il n'existe pas
+     */
+    public static OpeningBook parDefaut() {
+        return Defaut.LIVRE;
+    }
+
+    /**
+     * Le livre par défaut n'est ouvert qu'au 1er appel de parDefaut()
+     */
+    private static final class Defaut {
+        private static final OpeningBook LIVRE = charge();
+
+        private static OpeningBook charge() {
+            Path fichier = Paths.get(System.getProperty(PROPRIETE_FICHIER, FICHIER_PAR_DEFAUT));
+            if(!Files.isRegularFile(fichier)) return null;
+            try {
+                return ouvrir(fichier);
+            } catch(IOException | IllegalArgumentException e) {
+                System.err.println("[IA] livre d'ouvertures " + fichier + " ignoré : " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Cherche une position dans le livre.
+     *
+     * @param hash la clé canonique de la position (cf. Puissance4.getCleCanonique)
+     * @return le coup de la forme canonique (cf. Puissance4.coupCanonique) et son score (du point de vue du joueur
+     * qui a la main), ou null si la position est absente
+     */
+    public int[] probe(long hash) {
+        int debut = 0;
+        int fin = nbEntrees - 1;
+        while(debut <= fin) {
+            int milieu = (debut + fin) >>> 1;
+            int position = TAILLE_ENTETE + milieu * TAILLE_ENTREE;
+            long cle = buffer.getLong(position);
+            if(cle < hash) debut = milieu + 1;
+            else if(cle > hash) fin = milieu - 1;
+            else return new int[]{buffer.getShort(position + 12), buffer.getInt(position + 8)};
+        }
+        return null;
+    }
+
+    /**
+     * @return le nombre de positions du livre
+     */
+    public int size() {
+        return nbEntrees;
+    }
+}
@@ -0,0 +1,97 @@
+package ia;
+
+import game.Piece;
+import game.Puissance4;
+import player.Human;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outil hors ligne qui génère le livre d'ouvertures (cf. OpeningBook) : chaque position atteignable en moins
+ * de "plies" coups depuis le plateau vide est recherchée une fois avec l'ia du niveau choisi.
+ * <p>
+ * Usage : java ia.OpeningBookBuilder [fichier] [plies] [niveau]
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class OpeningBookBuilder {
+    private final Ia ia;
+    private final int plies;
+    /**
+     * Les entrées du livre, triées par clé comme dans le fichier : clé canonique -> {coup canonique, score, profondeur}
+     */
+    private final Map<Long, int[]> entrees = new TreeMap<>();
+
+    public OpeningBookBuilder(Niveau niveau, int plies) {
+        this.ia = new Ia(niveau);
+        this.plies = plies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path fichier = Paths.get(args.length > 0 ? args[0] : OpeningBook.FICHIER_PAR_DEFAUT);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Niveau niveau = args.length > 2 ? Niveau.valueOf(args[2]) : Niveau.FORT;
+        OpeningBookBuilder builder = new OpeningBookBuilder(niveau, plies);
+        long debut = System.nanoTime();
+        builder.construire();
+        builder.ecrire(fichier);
+        System.out.println(builder.entrees.size() + " positions écrites dans " + fichier + " en "
+                + (System.nanoTime() - debut) / 1_000_000_000L + " s");
+    }
+
+    /**
+     * Recherche toutes les positions à moins de "plies" coups du plateau vide.
+     */
+    public void construire() {
+        // les joueurs ne servent qu'à identifier les pièces, c'est l'ia du constructeur qui cherche
+        Puissance4 game = new Puissance4(new Human("Joueur 1", Piece.ROUGE), new Human("Joueur 2", Piece.JAUNE), true);
+        explorer(game);
+    }
+
+    private void explorer(Puissance4 game) {
+        // une position symétrique d'une position déjà recherchée partage son entrée
+        if(game.isOver() || game.getNbCoups() >= plies || entrees.containsKey(game.getCleCanonique())) return;
+        // les scores de la table dépendent du joueur qui cherche, elle est donc vidée entre deux positions
+        ia.oublierRecherches();
+        SearchStats stats = ia.rechercher(game, game.getCurrentPlayer());
+        entrees.put(game.getCleCanonique(), new int[]{game.coupCanonique(stats.getColonne()), stats.getScore(),
+                stats.getProfondeur()});
+        if(entrees.size() % 100 == 0) System.out.println(entrees.size() + " positions recherchées");
+
+        for(int col = 0; col < Puissance4.NB_COL; col++) {
+            if(!game.play(col)) continue;
+            explorer(game);
+            game.undo();
+        }
+    }
+
+    /**
+     * Ecrit le livre au format lu par OpeningBook.
+     *
+     * @param fichier le chemin du livre
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public void ecrire(Path fichier) throws IOException {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entrees.size());
+            out.writeInt(0); // réservé
+            for(Map.Entry<Long, int[]> entree : entrees.entrySet()) {
+                int[] valeur = entree.getValue();
+                out.writeLong(entree.getKey());
+                out.writeInt(valeur[1]);
+                out.writeShort(valeur[0]);
+                out.writeShort(valeur[2]);
+            }
+        }
+    }
+}
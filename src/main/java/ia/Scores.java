@@ -0,0 +1,92 @@
+package ia;
+
+import game.Puissance4;
+
+/**
+ * Echelle de scores symétrique du moteur negamax : tous les scores sont dans [-INFINI, INFINI],
+ * on peut donc toujours les négativer sans dépasser la capacité d'un int (ce qui n'est pas le cas de
+ * Integer.MIN_VALUE utilisé par l'heuristique pour une défaite).
+ * <p>
+ * Une victoire au coup n (compté depuis la racine) vaut VICTOIRE - n, pour préférer les victoires les plus
+ * rapides et retarder les défaites. Les valeurs de l'heuristique sont dans [-HEURISTIQUE_MAX, HEURISTIQUE_MAX],
+ * en dessous de la plus lente des victoires, sauf celles d'une partie que l'heuristique sait gagnée ou perdue,
+ * qui deviennent une victoire ou une défaite (cf. depuisHeuristique).
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+final class Scores {
+    private static final int NB_CASES = Puissance4.NB_COL * Puissance4.NB_ROW;
+    static final int VICTOIRE = 1 << 30;
+    static final int INFINI = VICTOIRE + 1;
+    static final int HEURISTIQUE_MAX = VICTOIRE - NB_CASES - 1;
+    /**
+     * La demi-largeur de la 1ère fenêtre d'aspiration autour du score de l'itération précédente.
+     * Les scores de l'heuristique avancent souvent par paliers de 5000, une fenêtre plus étroite échoue presque toujours.
+     */
+    static final int FENETRE_ASPIRATION = 12000;
+
+    private Scores() {
+    }
+
+    /**
+     * @param coups le nombre de coups depuis la racine jusqu'au coup gagnant
+     * @return le score d'une victoire au coup donné
+     */
+    static int victoire(int coups) {
+        return VICTOIRE - coups;
+    }
+
+    /**
+     * Traduit une valeur de l'heuristique dans l'échelle de negamax. L'heuristique compte Integer.MAX_VALUE pour
+     * un alignement qu'elle sait gagnant, sa valeur dépasse alors HEURISTIQUE_MAX (en plus ou en moins, selon le
+     * joueur) sans dire en combien de coups la partie sera gagnée : elle devient la plus lente des victoires
+     * (ou défaites) possibles, à la fin de la partie.
+     *
+     * @param evaluation  une valeur de l'heuristique du plateau
+     * @param finDePartie le nombre de coups depuis la racine jusqu'à ce que le plateau soit rempli
+     * @return le score de negamax, une victoire ou une défaite forcée si l'heuristique l'a trouvée
+     */
+    static int depuisHeuristique(int evaluation, int finDePartie) {
+        if(evaluation > HEURISTIQUE_MAX) return victoire(finDePartie);
+        if(evaluation < -HEURISTIQUE_MAX) return -victoire(finDePartie);
+        return evaluation;
+    }
+
+    /**
+     * @return true si le score est celui d'une victoire ou d'une défaite forcée
+     */
+    static boolean estFinDePartie(int score) {
+        return Math.abs(score) > HEURISTIQUE_MAX;
+    }
+
+    /**
+     * Traduit un score de negamax dans l'échelle de l'heuristique (Integer.MAX_VALUE pour une victoire forcée,
+     * Integer.MIN_VALUE pour une défaite forcée), comme les scores renvoyés par alpha-beta.
+     */
+    static int versHeuristique(int score) {
+        if(!estFinDePartie(score)) return score;
+        return score > 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Une victoire est comptée depuis la racine, mais la table de transposition doit la compter depuis la position
+     * enregistrée, qui peut être atteinte à une autre profondeur.
+     *
+     * @param score      le score de la position
+     * @param profondeur la profondeur de la position
+     * @return le score à enregistrer dans la table
+     */
+    static int versTable(int score, int profondeur) {
+        if(!estFinDePartie(score)) return score;
+        return score > 0 ? score + profondeur : score - profondeur;
+    }
+
+    /**
+     * Inverse de versTable.
+     */
+    static int depuisTable(int score, int profondeur) {
+        if(!estFinDePartie(score)) return score;
+        return score > 0 ? score - profondeur : score + profondeur;
+    }
+}
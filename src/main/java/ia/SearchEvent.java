@@ -0,0 +1,32 @@
+package ia;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evènement JFR d'une recherche complète de l'ia (cf. Ia.rechercher), sa durée est celle de la recherche.
+ *
+ * @author Xiumin LIN
+ */
+@Name("puissance4.Search")
+@Label("Recherche de l'ia")
+@Category({"Puissance 4", "IA"})
+final class SearchEvent extends jdk.jfr.Event {
+    @Label("Niveau")
+    String niveau;
+
+    @Label("Profondeur")
+    @Description("La profondeur de recherche, celle de la dernière itération terminée en approfondissement itératif")
+    int profondeur;
+
+    @Label("Noeuds")
+    long noeuds;
+
+    @Label("Colonne")
+    int colonne;
+
+    @Label("Score")
+    int score;
+}
@@ -0,0 +1,29 @@
+package ia;
+
+/**
+ * Observateur des recherches de l'ia, prévenu à la fin de chaque recherche lancée par Ia.rechercher,
+ * et s'il le souhaite à la fin de chaque itération de l'approfondissement itératif.
+ * Il est appelé par le thread qui a fait la recherche.
+ *
+ * @author Xiumin LIN
+ */
+@FunctionalInterface
+public interface SearchListener {
+    /**
+     * Appelé à la fin d'une recherche.
+     *
+     * @param stats le coup choisi et les compteurs de la recherche
+     */
+    void onSearch(SearchStats stats);
+
+    /**
+     * Appelé à la fin de chaque itération terminée de l'approfondissement itératif (ne fait rien par défaut).
+     *
+     * @param profondeur la profondeur de l'itération
+     * @param colonne    le meilleur coup de l'itération
+     * @param score      son score, du point de vue du joueur qui cherche
+     * @param noeuds     le nombre de noeuds visités depuis le début de la recherche (hors threads auxiliaires)
+     */
+    default void onIteration(int profondeur, int colonne, int score, long noeuds) {
+    }
+}
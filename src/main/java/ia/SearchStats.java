@@ -0,0 +1,160 @@
+package ia;
+
+import java.util.Arrays;
+
+/**
+ * Résultat d'une recherche de l'ia (cf. Ia.rechercher) : le coup choisi et ce qu'il a coûté.
+ * Les compteurs incluent ceux des threads auxiliaires des moteurs multi-threads.
+ *
+ * @author Xiumin LIN
+ */
+public final class SearchStats {
+    private final Niveau niveau;
+    private final int colonne;
+    private final int score;
+    private final int profondeur;
+    private final int profondeurAtteinte;
+    private final long noeuds;
+    private final long evaluations;
+    private final long[] coupuresParRang;
+    private final long tableProbes;
+    private final long tableHits;
+    private final double tableFillRate;
+    private final long cacheProbes;
+    private final long cacheHits;
+    private final long dureeNanos;
+
+    /**
+     * @param niveau             le niveau de l'ia
+     * @param colonne            la colonne choisie
+     * @param score              la valeur de l'heuristique de la colonne choisie
+     * @param profondeur         la profondeur de recherche (la dernière itération terminée en approfondissement itératif)
+     * @param profondeurAtteinte la profondeur du noeud le plus profond visité
+     * @param noeuds             le nombre de noeuds visités
+     * @param evaluations        le nombre d'appels à l'heuristique du plateau
+     * @param coupuresParRang    le nombre de coupures alpha-beta selon le rang du coup qui l'a provoquée
+     * @param tableProbes        le nombre de consultations de la table de transposition
+     * @param tableHits          le nombre de consultations qui ont trouvé leur position
+     * @param tableFillRate      la proportion des entrées occupées de la table de transposition à la fin de la recherche
+     * @param cacheProbes        le nombre de consultations du cache d'évaluation
+     * @param cacheHits          le nombre de consultations du cache qui ont trouvé leur position
+     * @param dureeNanos         la durée de la recherche (en ns)
+     */
+    SearchStats(Niveau niveau, int colonne, int score, int profondeur, int profondeurAtteinte, long noeuds,
+                long evaluations, long[] coupuresParRang, long tableProbes, long tableHits, double tableFillRate,
+                long cacheProbes, long cacheHits, long dureeNanos) {
+        this.niveau = niveau;
+        this.colonne = colonne;
+        this.score = score;
+        this.profondeur = profondeur;
+        this.profondeurAtteinte = profondeurAtteinte;
+        this.noeuds = noeuds;
+        this.evaluations = evaluations;
+        this.coupuresParRang = coupuresParRang.clone();
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.tableFillRate = tableFillRate;
+        this.cacheProbes = cacheProbes;
+        this.cacheHits = cacheHits;
+        this.dureeNanos = dureeNanos;
+    }
+
+    public Niveau getNiveau() {
+        return niveau;
+    }
+
+    public int getColonne() {
+        return colonne;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return la profondeur de recherche, pour l'approfondissement itératif celle de la dernière itération terminée
+     */
+    public int getProfondeur() {
+        return profondeur;
+    }
+
+    /**
+     * @return la profondeur du noeud le plus profond visité
+     */
+    public int getProfondeurAtteinte() {
+        return profondeurAtteinte;
+    }
+
+    public long getNoeuds() {
+        return noeuds;
+    }
+
+    /**
+     * @return le nombre d'appels à l'heuristique du plateau (feuilles et fins de partie)
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return le nombre de coupures alpha-beta, l'indice étant le rang du coup qui l'a provoquée
+     * (0 = 1er coup exploré)
+     */
+    public long[] getCoupuresParRang() {
+        return coupuresParRang.clone();
+    }
+
+    /**
+     * @return le nombre total de coupures alpha-beta
+     */
+    public long getCoupures() {
+        return Arrays.stream(coupuresParRang).sum();
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * @return la proportion des entrées occupées de la table de transposition à la fin de la recherche
+     * (entre 0 et 1, 0 sans table) : proche de 1, la table est trop petite pour la recherche
+     */
+    public double getTableFillRate() {
+        return tableFillRate;
+    }
+
+    public long getCacheProbes() {
+        return cacheProbes;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * @return le nombre de noeuds visités par seconde
+     */
+    public long getNoeudsParSeconde() {
+        return dureeNanos == 0 ? 0 : noeuds * 1_000_000_000L / dureeNanos;
+    }
+
+    @Override
+    public String toString() {
+        long coupures = getCoupures();
+        return "colonne " + colonne + " (heuristique:" + score + "), profondeur " + profondeur
+                + " (atteinte " + profondeurAtteinte + "), " + noeuds + " noeuds, " + evaluations + " évaluations, "
+                + coupures + " coupures (" + (coupures == 0 ? 0 : Math.round(100.0 * coupuresParRang[0] / coupures))
+                + "% au 1er coup), table " + tableHits + "/" + tableProbes
+                + " (" + Math.round(100 * tableFillRate) + "% pleine), cache " + cacheHits + "/" + cacheProbes
+                + ", " + dureeNanos / 1_000_000 + " ms, "
+                + getNoeudsParSeconde() + " noeuds/s";
+    }
+}
@@ -0,0 +1,47 @@
+package ia;
+
+/**
+ * Compteurs cumulés des recherches de l'ia, exposés en JMX sous le nom "ia:type=SearchStats"
+ * (cf. SearchStatsMonitor).
+ *
+ * @author Xiumin LIN
+ */
+public interface SearchStatsMXBean {
+    long getSearches();
+
+    long getNodes();
+
+    long getLeafEvaluations();
+
+    long getCutoffs();
+
+    long getFirstMoveCutoffs();
+
+    long getTranspositionProbes();
+
+    long getTranspositionHits();
+
+    long getEvaluationCacheProbes();
+
+    long getEvaluationCacheHits();
+
+    long getElapsedMillis();
+
+    long getLastNodes();
+
+    int getLastDepth();
+
+    long getLastElapsedMillis();
+
+    long getLastNodesPerSecond();
+
+    /**
+     * @return la proportion des entrées occupées de la table de transposition à la fin de la dernière recherche
+     */
+    double getLastTranspositionFillRate();
+
+    /**
+     * Remet tous les compteurs à 0
+     */
+    void reset();
+}
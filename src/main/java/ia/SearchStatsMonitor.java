@@ -0,0 +1,160 @@
+package ia;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumule les statistiques de toutes les recherches qu'il observe et les expose en JMX, pour suivre le coût
+ * de l'ia coup par coup depuis une console JMX (jconsole, VisualVM...).
+ * Une seule instance est enregistrée auprès du serveur MBean de la JVM, cf. getInstance().
+ *
+ * @author Xiumin LIN
+ */
+public final class SearchStatsMonitor implements SearchListener, SearchStatsMXBean {
+    public static final String NOM_JMX = "ia:type=SearchStats";
+    private static final SearchStatsMonitor INSTANCE = enregistre(new SearchStatsMonitor());
+
+    private final LongAdder recherches = new LongAdder();
+    private final LongAdder noeuds = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder coupures = new LongAdder();
+    private final LongAdder coupuresPremierCoup = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder cacheProbes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder dureeNanos = new LongAdder();
+    private volatile SearchStats derniere;
+
+    private SearchStatsMonitor() {
+    }
+
+    /**
+     * @return l'observateur partagé, enregistré en JMX sous le nom NOM_JMX
+     */
+    public static SearchStatsMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    private static SearchStatsMonitor enregistre(SearchStatsMonitor monitor) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, new ObjectName(NOM_JMX));
+        } catch(JMException e) {
+            // les statistiques restent disponibles par l'API, seule la console JMX en sera privée
+            System.err.println("[IA] impossible d'enregistrer " + NOM_JMX + " : " + e.getMessage());
+        }
+        return monitor;
+    }
+
+    @Override
+    public void onSearch(SearchStats stats) {
+        recherches.increment();
+        noeuds.add(stats.getNoeuds());
+        evaluations.add(stats.getEvaluations());
+        coupures.add(stats.getCoupures());
+        coupuresPremierCoup.add(stats.getCoupuresParRang()[0]);
+        tableProbes.add(stats.getTableProbes());
+        tableHits.add(stats.getTableHits());
+        cacheProbes.add(stats.getCacheProbes());
+        cacheHits.add(stats.getCacheHits());
+        dureeNanos.add(stats.getDureeNanos());
+        derniere = stats;
+    }
+
+    @Override
+    public long getSearches() {
+        return recherches.sum();
+    }
+
+    @Override
+    public long getNodes() {
+        return noeuds.sum();
+    }
+
+    @Override
+    public long getLeafEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getCutoffs() {
+        return coupures.sum();
+    }
+
+    @Override
+    public long getFirstMoveCutoffs() {
+        return coupuresPremierCoup.sum();
+    }
+
+    @Override
+    public long getTranspositionProbes() {
+        return tableProbes.sum();
+    }
+
+    @Override
+    public long getTranspositionHits() {
+        return tableHits.sum();
+    }
+
+    @Override
+    public long getEvaluationCacheProbes() {
+        return cacheProbes.sum();
+    }
+
+    @Override
+    public long getEvaluationCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return dureeNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getLastNodes() {
+        SearchStats stats = derniere;
+        return stats == null ? 0 : stats.getNoeuds();
+    }
+
+    @Override
+    public int getLastDepth() {
+        SearchStats stats = derniere;
+        return stats == null ? 0 : stats.getProfondeur();
+    }
+
+    @Override
+    public long getLastElapsedMillis() {
+        SearchStats stats = derniere;
+        return stats == null ? 0 : stats.getDureeNanos() / 1_000_000;
+    }
+
+    @Override
+    public long getLastNodesPerSecond() {
+        SearchStats stats = derniere;
+        return stats == null ? 0 : stats.getNoeudsParSeconde();
+    }
+
+    @Override
+    public double getLastTranspositionFillRate() {
+        SearchStats stats = derniere;
+        return stats == null ? 0 : stats.getTableFillRate();
+    }
+
+    @Override
+    public void reset() {
+        recherches.reset();
+        noeuds.reset();
+        evaluations.reset();
+        coupures.reset();
+        coupuresPremierCoup.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        cacheProbes.reset();
+        cacheHits.reset();
+        dureeNanos.reset();
+        derniere = null;
+    }
+}
@@ -0,0 +1,167 @@
+package ia;
+
+/**
+ * Table de transposition de taille fixe utilisée par l'algo alpha-beta.
+ * Une même position peut être atteinte par plusieurs ordres de coups, la table permet de réutiliser
+ * le résultat d'une position déjà explorée au lieu de la rechercher à nouveau.
+ * <p>
+ * Chaque entrée est faite de 2 longs : le hash de la position XOR les données, puis les données compactées
+ * (score, profondeur, type de borne et meilleur coup, cf. compacter). Les ia y rangent chaque position sous sa clé
+ * canonique (cf. Puissance4.getCleCanonique) : une position et sa symétrique partagent la même entrée, dont le
+ * meilleur coup est celui de la forme canonique.
+ * </p>
+ * <p>
+ * Une table peut être partagée entre plusieurs threads sans verrou : deux threads qui écrivent la même entrée
+ * en même temps peuvent laisser la clé de l'un avec les données de l'autre, mais le XOR ne correspond alors
+ * plus au hash cherché et l'entrée est vue comme absente. Les compteurs ne sont pas synchronisés,
+ * ils restent approximatifs lorsque la table est partagée.
+ * </p>
+ * <p>
+ * Deux implémentations : ArrayTranspositionTable dans un tableau de longs sur le tas, et OffHeapTranspositionTable
+ * hors du tas, pour les tables de plusieurs centaines de Mo.
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public interface TranspositionTable {
+    /**
+     * Le score stocké est la valeur exacte de la position
+     */
+    int EXACT = 0;
+    /**
+     * Le score stocké est une borne inférieure (coupure beta)
+     */
+    int LOWER = 1;
+    /**
+     * Le score stocké est une borne supérieure (aucun coup n'a dépassé alpha)
+     */
+    int UPPER = 2;
+
+    /**
+     * Politique de remplacement lorsque deux positions tombent sur la même entrée
+     */
+    enum Remplacement {
+        /**
+         * La nouvelle position remplace toujours l'ancienne
+         */
+        TOUJOURS,
+        /**
+         * La nouvelle position ne remplace l'ancienne que si elle a été recherchée au moins aussi profondément,
+         * ou si l'ancienne a été écrite par une recherche précédente (cf. nouvelleRecherche)
+         */
+        PROFONDEUR
+    }
+
+    // Disposition des données compactées dans un long :
+    // bits 0-31 : score, bits 32-39 : profondeur, bits 40-41 : borne, bits 42-45 : coup + 1 (0 = aucun),
+    // bits 46-61 : libres pour l'implémentation (âge de la recherche, génération de OffHeapTranspositionTable),
+    // bit 63 : VALIDE
+    int DECALAGE_PROFONDEUR = 32;
+    int DECALAGE_BORNE = 40;
+    int DECALAGE_COUP = 42;
+    /**
+     * Bit toujours à 1 dans une entrée occupée, une donnée à 0 signifie donc "aucune entrée"
+     */
+    long VALIDE = 1L << 63;
+
+    /**
+     * Cherche la position dans la table et met à jour les compteurs hits/misses.
+     *
+     * @param cle le hash de la position
+     * @return les données compactées de l'entrée, ou 0 si la position n'est pas dans la table
+     */
+    long probe(long cle);
+
+    /**
+     * Enregistre le résultat de la recherche d'une position selon la politique de remplacement.
+     *
+     * @param cle        le hash de la position
+     * @param profondeur la profondeur restante avec laquelle la position a été recherchée
+     * @param borne      le type de score : EXACT, LOWER ou UPPER
+     * @param score      le score de la position
+     * @param coup       le meilleur coup trouvé, -1 si aucun
+     */
+    void store(long cle, int profondeur, int borne, int score, int coup);
+
+    /**
+     * Signale le début d'une nouvelle recherche : les entrées écrites avant restent lisibles, mais la politique
+     * PROFONDEUR les remplace désormais même par une position moins profonde. Sans cela, les entrées profondes des
+     * coups précédents, qui ne servent plus, empêcheraient d'enregistrer celles de la recherche en cours.
+     */
+    void nouvelleRecherche();
+
+    /**
+     * Vide la table et remet les compteurs à 0
+     */
+    void clear();
+
+    /**
+     * Remet les compteurs hits/misses à 0
+     */
+    void resetStats();
+
+    long getHits();
+
+    long getMisses();
+
+    /**
+     * @return la proportion de recherches ayant trouvé leur position dans la table (entre 0 et 1)
+     */
+    default double getHitRate() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    /**
+     * @return le nombre d'entrées de la table
+     */
+    int capacite();
+
+    /**
+     * @return la proportion des entrées occupées depuis le dernier clear() (entre 0 et 1)
+     */
+    double getFillRate();
+
+    /**
+     * @return les données compactées d'une entrée (sans bit de l'implémentation)
+     */
+    static long compacter(int profondeur, int borne, int score, int coup) {
+        return VALIDE
+                | ((long) (coup + 1) << DECALAGE_COUP)
+                | ((long) borne << DECALAGE_BORNE)
+                | ((long) profondeur << DECALAGE_PROFONDEUR)
+                | (score & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param donnees une entrée renvoyée par probe
+     * @return le score de l'entrée
+     */
+    static int score(long donnees) {
+        return (int) donnees;
+    }
+
+    /**
+     * @param donnees une entrée renvoyée par probe
+     * @return la profondeur restante avec laquelle la position a été recherchée
+     */
+    static int depth(long donnees) {
+        return (int) (donnees >>> DECALAGE_PROFONDEUR) & 0xFF;
+    }
+
+    /**
+     * @param donnees une entrée renvoyée par probe
+     * @return le type de borne du score : EXACT, LOWER ou UPPER
+     */
+    static int bound(long donnees) {
+        return (int) (donnees >>> DECALAGE_BORNE) & 0x3;
+    }
+
+    /**
+     * @param donnees une entrée renvoyée par probe
+     * @return le meilleur coup de l'entrée, -1 si aucun
+     */
+    static int move(long donnees) {
+        return ((int) (donnees >>> DECALAGE_COUP) & 0xF) - 1;
+    }
+}
@@ -1,9 +1,21 @@
 package player;
 
+import game.ModeEvaluation;
 import game.Piece;
 import game.Puissance4;
+import ia.AnalysisCache;
 import ia.Ia;
+import ia.Moteur;
 import ia.Niveau;
+import ia.OpeningBook;
+import ia.SearchStats;
+import ia.SearchStatsMonitor;
+import ia.TranspositionTable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Classe représentant un joueur artificiel, il utilise la classe IA pour faire ses choix
@@ -13,11 +25,97 @@ import ia.Niveau;
 public class Computer extends Player {
     private final Niveau level;
     private final Ia ai;
+    /**
+     * La façon dont l'ia évalue le plateau aux feuilles de sa recherche
+     */
+    private ModeEvaluation modeEvaluation = ModeEvaluation.COMPLETE;
+    /**
+     * Le livre d'ouvertures consulté avant de lancer une recherche, null si aucun
+     */
+    private OpeningBook livre = OpeningBook.parDefaut();
+    /**
+     * Le cache persistant des analyses, consulté avant de lancer une recherche et complété après, null si aucun
+     */
+    private AnalysisCache analyses = AnalysisCache.parDefaut();
+    /**
+     * La profondeur de la dernière recherche du niveau CHRONO : une analyse du cache moins profonde est ignorée
+     */
+    private int derniereProfondeur = Integer.MAX_VALUE;
+    /**
+     * Le thread où l'ia fait ses recherches pour playAsync, créé au 1er appel. Un seul thread par joueur :
+     * une recherche annulée se termine avant que la suivante commence, elles ne partagent jamais l'ia.
+     */
+    private ExecutorService executeur;
+    /**
+     * Indique si l'ia affiche ses coups et les statistiques de ses recherches dans la console
+     */
+    private boolean verbeux = true;
 
     public Computer(String name, Piece piece, Niveau lvl) {
         super(name, piece);
         this.level = lvl;
         this.ai = new Ia(level);
+        this.ai.addSearchListener(SearchStatsMonitor.getInstance());
+    }
+
+    /**
+     * Constructeur d'un joueur artificiel utilisant un moteur de recherche particulier pour alpha-beta.
+     *
+     * @param name      le nom du joueur
+     * @param piece     la pièce du joueur
+     * @param lvl       le niveau de l'ia
+     * @param moteur    le moteur de recherche utilisé par alpha-beta
+     * @param nbThreads le nombre de threads utilisés par le moteur
+     */
+    public Computer(String name, Piece piece, Niveau lvl, Moteur moteur, int nbThreads) {
+        this(name, piece, lvl);
+        this.ai.setMoteur(moteur, nbThreads);
+    }
+
+    /**
+     * Choisit la façon dont l'ia évalue le plateau aux feuilles de sa recherche.
+     *
+     * @param modeEvaluation COMPLETE (par défaut), INCREMENTALE ou TABLE
+     */
+    public void setModeEvaluation(ModeEvaluation modeEvaluation) {
+        this.modeEvaluation = modeEvaluation;
+    }
+
+    /**
+     * Remplace le livre d'ouvertures consulté avant chaque recherche (sauf au niveau FAIBLE).
+     *
+     * @param livre le livre, null pour ne plus en consulter
+     */
+    public void setOpeningBook(OpeningBook livre) {
+        this.livre = livre;
+    }
+
+    /**
+     * Remplace le cache persistant des analyses (sauf au niveau FAIBLE, qui ne s'en sert pas).
+     *
+     * @param analyses le cache, null pour ne plus en consulter ni en remplir
+     */
+    public void setAnalysisCache(AnalysisCache analyses) {
+        this.analyses = analyses;
+    }
+
+    /**
+     * Choisit à partir de combien de cases vides l'ia résout la partie exactement (cf. Ia.setSeuilFinDePartie).
+     *
+     * @param seuilFinDePartie le nombre de cases vides, 0 pour ne jamais résoudre la partie
+     */
+    public void setSeuilFinDePartie(int seuilFinDePartie) {
+        ai.setSeuilFinDePartie(seuilFinDePartie);
+    }
+
+    /**
+     * Active ou désactive l'affichage des coups et des statistiques dans la console
+     * (ex: désactivé pour les milliers de parties d'un tournoi).
+     *
+     * @param verbeux false pour que l'ia n'affiche rien
+     */
+    public void setVerbeux(boolean verbeux) {
+        this.verbeux = verbeux;
     }
 
     @Override
@@ -33,16 +131,149 @@ public class Computer extends Player {
      */
     @Override
     public int play(Puissance4 game) {
-        int[] result;
-        switch(level) {
-            case MOYEN, FORT:
-                result = ai.playAlphaBeta(game, 0, true, this, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                break;
-            case FAIBLE:
-            default:
-                result = ai.playMiniMax(game, 0, true, this);
+        // le niveau FAIBLE reste volontairement faible, il n'utilise pas le livre
+        if(livre != null && level != Niveau.FAIBLE) {
+            int[] entree = livre.probe(game.getCleCanonique());
+            // le livre ne contient que la forme canonique des positions
+            int col = entree == null ? -1 : game.coupCanonique(entree[0]);
+            if(col >= 0 && game.nextEmptyCaseRow(col) >= 0) {
+                if(verbeux) System.out.println("[IA]" + getName() + " joue à la colonne :" + col + " (heuristique:"
+                        + entree[1] + ", livre d'ouvertures)");
+                return col;
+            }
+        }
+        int col = jouerAnalyse(game);
+        if(col >= 0) return col;
+        int profondeurPonderee = ai.getProfondeurPonderee(game.getCleCanonique());
+        if(profondeurPonderee > 0 && verbeux) {
+            System.out.println("[IA]" + getName() + " ponder hit, position déjà recherchée à la profondeur "
+                    + profondeurPonderee);
+        }
+        // l'ia joue et annule ses coups sur une seule copie, le jeu affiché n'est donc jamais modifié
+        Puissance4 copie = new Puissance4(game);
+        copie.setModeEvaluation(modeEvaluation);
+        SearchStats stats = ai.rechercher(copie, this);
+        if(stats.getColonne() < 0) {
+            if(verbeux) System.out.println("[IA]" + getName() + " recherche interrompue avant d'avoir choisi un coup");
+            return -1;
+        }
+        if(level.isChronometre()) derniereProfondeur = stats.getProfondeur();
+        if(analyses != null && level != Niveau.FAIBLE && stats.getProfondeur() > 0) {
+            analyses.store(game.getCleCanonique(), stats.getProfondeur(), stats.getScore(),
+                    game.coupCanonique(stats.getColonne()));
+        }
+        if(verbeux) {
+            System.out.println("[IA]" + getName() + " joue à la colonne :" + stats.getColonne()
+                    + " (heuristique:" + stats.getScore() + ")");
+            System.out.println("[IA]" + getName() + " " + stats);
+        }
+        return stats.getColonne();
+    }
+
+    /**
+     * Cherche la position dans le cache des analyses. Une analyse n'est reprise que si elle est au moins aussi
+     * profonde que la recherche que l'ia ferait : la résolution exacte en fin de partie, sinon la profondeur
+     * du niveau (pour CHRONO, celle de sa dernière recherche).
+     *
+     * @return la colonne de l'analyse, ou -1 si la position n'a pas été analysée assez profondément
+     */
+    private int jouerAnalyse(Puissance4 game) {
+        // le niveau FAIBLE reste volontairement faible, il n'utilise pas le cache
+        if(analyses == null || level == Niveau.FAIBLE) return -1;
+        long entree = analyses.probe(game.getCleCanonique());
+        if(entree == 0) return -1;
+        int casesVides = Puissance4.NB_COL * Puissance4.NB_ROW - game.getNbCoups();
+        int profondeurRequise = casesVides <= ai.getSeuilFinDePartie() ? casesVides
+                : level.isChronometre() ? derniereProfondeur : Math.min(level.getProfondeur(), casesVides);
+        // le cache ne contient que la forme canonique des positions
+        int col = game.coupCanonique(TranspositionTable.move(entree));
+        if(TranspositionTable.depth(entree) < profondeurRequise || col < 0 || game.nextEmptyCaseRow(col) < 0) {
+            return -1;
         }
-        System.out.println("[IA]" + getName() + " joue à la colonne :" + result[0] + " (heuristique:" + result[1] + ")");
-        return result[0];
+        if(verbeux) System.out.println("[IA]" + getName() + " joue à la colonne :" + col + " (heuristique:"
+                + TranspositionTable.score(entree) + ", cache d'analyses, profondeur "
+                + TranspositionTable.depth(entree) + ")");
+        return col;
+    }
+
+    /**
+     * Lance le choix de la colonne (cf. play) sur le thread de l'ia, pour ne pas bloquer le thread appelant
+     * (ex: le thread de l'interface JavaFX). La partie est copiée avant de rendre la main.
+     * <p>
+     * Annuler le future (cancel) demande à la recherche en cours de s'arrêter : elle rend la main en quelques
+     * millisecondes et son résultat est ignoré.
+     * </p>
+     *
+     * @param game le jeu
+     * @return le future de l'indice de la colonne où l'ia souhaite placer sa piece
+     */
+    public CompletableFuture<Integer> playAsync(Puissance4 game) {
+        Puissance4 copie = new Puissance4(game);
+        return lancer(() -> play(copie));
+    }
+
+    /**
+     * Lance la réflexion de l'ia pendant le tour de son adversaire (cf. Ia.ponder) sur le thread de l'ia.
+     * Il faut annuler le future (cancel) dès que l'adversaire a joué : la réflexion s'arrête et la recherche
+     * suivante profite de la table de transposition qu'elle a remplie.
+     *
+     * @param game le jeu, c'est à l'adversaire de jouer
+     * @return le future de la réflexion, terminé lorsque toutes les réponses de l'adversaire ont été recherchées
+     */
+    public CompletableFuture<Void> ponderAsync(Puissance4 game) {
+        Puissance4 copie = new Puissance4(game);
+        copie.setModeEvaluation(modeEvaluation);
+        return lancer(() -> {
+            ai.ponder(copie, this);
+            return null;
+        });
+    }
+
+    /**
+     * Oublie les recherches de la partie précédente (cf. Ia.oublierRecherches). Le travail est fait sur le thread
+     * de l'ia, après la fin de la recherche éventuellement en cours.
+     */
+    public void nouvellePartie() {
+        getExecuteur().execute(ai::oublierRecherches);
+    }
+
+    /**
+     * Exécute une tâche de l'ia sur son thread. Annuler le future demande à l'ia de s'arrêter.
+     */
+    private <T> CompletableFuture<T> lancer(Supplier<T> tache) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        resultat.whenComplete((valeur, erreur) -> {
+            if(resultat.isCancelled()) ai.demanderArret();
+        });
+        getExecuteur().execute(() -> {
+            // une annulation arrivée avant cette ligne est vue par isDone(), une annulation arrivée après
+            // arrête la recherche
+            ai.annulerDemandeArret();
+            if(resultat.isDone()) return;
+            try {
+                resultat.complete(tache.get());
+            } catch(RuntimeException | Error e) {
+                resultat.completeExceptionally(e);
+            }
+        });
+        return resultat;
+    }
+
+    private synchronized ExecutorService getExecuteur() {
+        if(executeur == null) {
+            executeur = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ia-" + getName());
+                thread.setDaemon(true); // ne retient pas la fermeture de l'application
+                return thread;
+            });
+        }
+        return executeur;
+    }
+
+    /**
+     * @return l'ia du joueur, pour y ajouter des observateurs de ses recherches (cf. Ia.addSearchListener)
+     */
+    public Ia getIa() {
+        return ai;
     }
 }
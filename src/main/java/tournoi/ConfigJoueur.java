@@ -0,0 +1,82 @@
+package tournoi;
+
+import game.ModeEvaluation;
+import game.Piece;
+import ia.Moteur;
+import ia.Niveau;
+import player.Computer;
+
+/**
+ * Les réglages d'un ordinateur participant à un tournoi : son niveau, son moteur de recherche et son évaluation.
+ * <p>
+ * Un réglage s'écrit NIVEAU[:MOTEUR[:THREADS[:EVALUATION]]], ex: "FORT", "FORT:NEGAMAX", "CHRONO:LAZY_SMP:4"
+ * ou "MOYEN:SEQUENTIEL:1:INCREMENTALE".
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public final class ConfigJoueur {
+    private final Niveau niveau;
+    private final Moteur moteur;
+    private final int nbThreads;
+    private final ModeEvaluation modeEvaluation;
+
+    public ConfigJoueur(Niveau niveau, Moteur moteur, int nbThreads, ModeEvaluation modeEvaluation) {
+        this.niveau = niveau;
+        this.moteur = moteur;
+        this.nbThreads = nbThreads;
+        this.modeEvaluation = modeEvaluation;
+    }
+
+    /**
+     * @param texte un réglage de la forme NIVEAU[:MOTEUR[:THREADS[:EVALUATION]]]
+     * @return le réglage décrit
+     * @throws IllegalArgumentException si le texte ne décrit pas un réglage
+     */
+    public static ConfigJoueur parse(String texte) {
+        String[] parties = texte.split(":");
+        if(parties.length > 4) throw new IllegalArgumentException("réglage invalide : " + texte);
+        Niveau niveau = Niveau.valueOf(parties[0]);
+        Moteur moteur = parties.length > 1 ? Moteur.valueOf(parties[1]) : Moteur.SEQUENTIEL;
+        int nbThreads = parties.length > 2 ? Integer.parseInt(parties[2]) : 1;
+        ModeEvaluation mode = parties.length > 3 ? ModeEvaluation.valueOf(parties[3]) : ModeEvaluation.COMPLETE;
+        return new ConfigJoueur(niveau, moteur, nbThreads, mode);
+    }
+
+    /**
+     * Crée un ordinateur avec ces réglages. Il ne consulte ni livre d'ouvertures ni cache d'analyses, et n'affiche rien.
+     *
+     * @param nom   le nom du joueur
+     * @param piece la pièce du joueur
+     * @return le nouvel ordinateur
+     */
+    public Computer creer(String nom, Piece piece) {
+        Computer computer = new Computer(nom, piece, niveau, moteur, nbThreads);
+        computer.setModeEvaluation(modeEvaluation);
+        computer.setOpeningBook(null);
+        computer.setAnalysisCache(null);
+        computer.setVerbeux(false);
+        return computer;
+    }
+
+    public Niveau getNiveau() {
+        return niveau;
+    }
+
+    public Moteur getMoteur() {
+        return moteur;
+    }
+
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
+    public ModeEvaluation getModeEvaluation() {
+        return modeEvaluation;
+    }
+
+    @Override
+    public String toString() {
+        return niveau + ":" + moteur + ":" + nbThreads + ":" + modeEvaluation;
+    }
+}
@@ -0,0 +1,112 @@
+package tournoi;
+
+/**
+ * Le résultat d'une partie d'un tournoi entre le joueur A et le joueur B, avec le temps de réflexion et le nombre
+ * de noeuds de chaque joueur. Les tableaux sont indexés par joueur : 0 pour A, 1 pour B.
+ *
+ * @author Xiumin LIN
+ */
+public final class ResultatPartie {
+    public static final int VICTOIRE_A = 1;
+    public static final int NUL = 0;
+    public static final int VICTOIRE_B = -1;
+    static final String ENTETE_CSV = "partie,ouverture,a_commence,resultat,coups,"
+            + "coups_a,temps_a_ns,noeuds_a,coups_b,temps_b_ns,noeuds_b";
+
+    private final int numero;
+    private final String ouverture;
+    private final boolean aCommence;
+    private final int resultat;
+    private final int nbCoups;
+    private final int[] coups;
+    private final long[] tempsNanos;
+    private final long[] noeuds;
+
+    /**
+     * @param numero     le numéro de la partie dans le tournoi
+     * @param ouverture  les colonnes des coups d'ouverture tirés au hasard, ex: "3521"
+     * @param aCommence  true si le joueur A a joué le 1er coup (coups d'ouverture compris)
+     * @param resultat   VICTOIRE_A, NUL ou VICTOIRE_B
+     * @param nbCoups    le nombre total de coups de la partie
+     * @param coups      le nombre de coups choisis par chaque joueur (hors ouverture)
+     * @param tempsNanos le temps de réflexion total de chaque joueur
+     * @param noeuds     le nombre de noeuds explorés par chaque joueur
+     */
+    ResultatPartie(int numero, String ouverture, boolean aCommence, int resultat, int nbCoups,
+                   int[] coups, long[] tempsNanos, long[] noeuds) {
+        this.numero = numero;
+        this.ouverture = ouverture;
+        this.aCommence = aCommence;
+        this.resultat = resultat;
+        this.nbCoups = nbCoups;
+        this.coups = coups;
+        this.tempsNanos = tempsNanos;
+        this.noeuds = noeuds;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public String getOuverture() {
+        return ouverture;
+    }
+
+    public boolean isACommence() {
+        return aCommence;
+    }
+
+    /**
+     * @return VICTOIRE_A, NUL ou VICTOIRE_B
+     */
+    public int getResultat() {
+        return resultat;
+    }
+
+    public int getNbCoups() {
+        return nbCoups;
+    }
+
+    /**
+     * @param joueur 0 pour A, 1 pour B
+     * @return le nombre de coups choisis par le joueur
+     */
+    public int getCoups(int joueur) {
+        return coups[joueur];
+    }
+
+    /**
+     * @param joueur 0 pour A, 1 pour B
+     * @return le temps de réflexion total du joueur
+     */
+    public long getTempsNanos(int joueur) {
+        return tempsNanos[joueur];
+    }
+
+    /**
+     * @param joueur 0 pour A, 1 pour B
+     * @return le nombre de noeuds explorés par le joueur
+     */
+    public long getNoeuds(int joueur) {
+        return noeuds[joueur];
+    }
+
+    /**
+     * @return une ligne du fichier CSV, dans l'ordre des colonnes de ENTETE_CSV
+     */
+    String toCsv() {
+        return numero + "," + ouverture + "," + aCommence + "," + resultat + "," + nbCoups + ","
+                + coups[0] + "," + tempsNanos[0] + "," + noeuds[0] + ","
+                + coups[1] + "," + tempsNanos[1] + "," + noeuds[1];
+    }
+
+    /**
+     * @return un objet JSON sur une seule ligne (format JSON Lines)
+     */
+    String toJson() {
+        return "{\"partie\":" + numero + ",\"ouverture\":\"" + ouverture + "\",\"a_commence\":" + aCommence
+                + ",\"resultat\":" + resultat + ",\"coups\":" + nbCoups
+                + ",\"a\":{\"coups\":" + coups[0] + ",\"temps_ns\":" + tempsNanos[0] + ",\"noeuds\":" + noeuds[0] + "}"
+                + ",\"b\":{\"coups\":" + coups[1] + ",\"temps_ns\":" + tempsNanos[1] + ",\"noeuds\":" + noeuds[1] + "}}";
+    }
+}
@@ -0,0 +1,281 @@
+package tournoi;
+
+import game.Piece;
+import game.Puissance4;
+import player.Computer;
+import player.Player;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tournoi entre deux ordinateurs, sans interface graphique : les parties sont jouées en parallèle, une par thread
+ * du pool, et chaque résultat est écrit dans le fichier de sortie dès que sa partie est terminée.
+ * <p>
+ * Les ia sont déterministes : pour que les parties ne soient pas toutes identiques, chacune commence par quelques
+ * coups tirés au hasard. Les parties vont par paires : la même ouverture est jouée deux fois, chaque joueur
+ * commençant une fois, pour que l'avantage du 1er joueur ne fausse pas le score.
+ * </p>
+ * <p>
+ * Usage : java tournoi.Tournoi A B [parties] [coups d'ouverture] [threads] [fichier .csv ou .jsonl] [graine]<br/>
+ * ex: java tournoi.Tournoi FORT:NEGAMAX FORT:SEQUENTIEL 1000 4 8 tournoi.csv
+ * </p>
+ *
+ * @author Xiumin LIN
+ */
+public class Tournoi {
+    /**
+     * Le quantile de la loi normale pour un intervalle de confiance à 95 %
+     */
+    private static final double Z_95 = 1.96;
+
+    private final ConfigJoueur configA;
+    private final ConfigJoueur configB;
+    private final int nbParties;
+    private final int coupsOuverture;
+    private final int nbThreads;
+    private final long graine;
+    /**
+     * Les deux ordinateurs de chaque thread du pool, réutilisés d'une partie à l'autre
+     * pour ne pas réallouer leurs tables de transposition
+     */
+    private final ThreadLocal<Adversaires> adversaires;
+
+    private int victoiresA;
+    private int nuls;
+    private int victoiresB;
+    private final long[] coups = new long[2];
+    private final long[] tempsNanos = new long[2];
+    private final long[] noeuds = new long[2];
+
+    public Tournoi(ConfigJoueur configA, ConfigJoueur configB, int nbParties, int coupsOuverture, int nbThreads,
+                   long graine) {
+        this.configA = configA;
+        this.configB = configB;
+        this.nbParties = nbParties;
+        this.coupsOuverture = coupsOuverture;
+        this.nbThreads = nbThreads;
+        this.graine = graine;
+        this.adversaires = ThreadLocal.withInitial(() -> new Adversaires(configA, configB));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 2) {
+            System.err.println("Usage : java tournoi.Tournoi A B [parties] [coups d'ouverture] [threads] [fichier] [graine]");
+            System.err.println("        A et B de la forme NIVEAU[:MOTEUR[:THREADS[:EVALUATION]]], ex: FORT:NEGAMAX");
+            System.exit(1);
+        }
+        ConfigJoueur a = ConfigJoueur.parse(args[0]);
+        ConfigJoueur b = ConfigJoueur.parse(args[1]);
+        int parties = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int ouverture = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Path fichier = Paths.get(args.length > 5 ? args[5] : "tournoi.csv");
+        long graine = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+
+        System.out.println("A = " + a + ", B = " + b + " : " + parties + " parties, " + ouverture
+                + " coups d'ouverture, " + threads + " threads, graine " + graine);
+        Tournoi tournoi = new Tournoi(a, b, parties, ouverture, threads, graine);
+        long debut = System.nanoTime();
+        tournoi.jouer(fichier);
+        System.out.println("Résultats écrits dans " + fichier + " en " + (System.nanoTime() - debut) / 1_000_000_000L + " s");
+        System.out.println(tournoi.bilan());
+    }
+
+    /**
+     * Joue toutes les parties du tournoi et écrit leurs résultats dans le fichier, au fur et à mesure.
+     *
+     * @param fichier le fichier de sortie, au format JSON Lines si son nom finit par .jsonl, sinon CSV
+     * @throws IOException          si le fichier ne peut pas être écrit
+     * @throws InterruptedException si le thread est interrompu pendant le tournoi
+     */
+    public void jouer(Path fichier) throws IOException, InterruptedException {
+        boolean json = fichier.getFileName().toString().endsWith(".jsonl");
+        ExecutorService pool = Executors.newFixedThreadPool(nbThreads, new FabriqueThreads());
+        try(BufferedWriter sortie = Files.newBufferedWriter(fichier)) {
+            if(!json) {
+                sortie.write(ResultatPartie.ENTETE_CSV);
+                sortie.newLine();
+            }
+            CompletionService<ResultatPartie> parties = new ExecutorCompletionService<>(pool);
+            for(int i = 0; i < nbParties; i++) {
+                int numero = i;
+                parties.submit(() -> jouerPartie(numero));
+            }
+            int pasAffichage = Math.max(1, nbParties / 20);
+            for(int i = 1; i <= nbParties; i++) {
+                ResultatPartie resultat = parties.take().get();
+                sortie.write(json ? resultat.toJson() : resultat.toCsv());
+                sortie.newLine();
+                sortie.flush();
+                ajouter(resultat);
+                if(i % pasAffichage == 0 || i == nbParties) {
+                    System.out.println(i + "/" + nbParties + " parties : +" + victoiresA + " =" + nuls + " -" + victoiresB);
+                }
+            }
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("une partie du tournoi a échoué", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Joue une partie sur le thread appelant.
+     * Les parties 2k et 2k+1 ont la même ouverture, le joueur A commence les parties paires.
+     *
+     * @param numero le numéro de la partie
+     * @return le résultat de la partie
+     */
+    ResultatPartie jouerPartie(int numero) {
+        Adversaires joueurs = adversaires.get();
+        joueurs.nouvellePartie();
+        boolean aCommence = numero % 2 == 0;
+        Puissance4 game = new Puissance4(joueurs.a, joueurs.b, aCommence);
+        String ouverture = jouerOuverture(game, new SplittableRandom(graine + numero / 2));
+
+        int[] coupsJoues = new int[2];
+        long[] temps = new long[2];
+        while(!game.isOver()) {
+            Player joueur = game.getCurrentPlayer();
+            int indice = joueur == joueurs.a ? 0 : 1;
+            long debut = System.nanoTime();
+            int col = joueur.play(game);
+            temps[indice] += System.nanoTime() - debut;
+            coupsJoues[indice]++;
+            if(!game.play(col)) {
+                throw new IllegalStateException(joueur.getName() + " a joué la colonne invalide " + col);
+            }
+        }
+        int resultat = game.getWinner() == null ? ResultatPartie.NUL
+                : game.getWinner() == joueurs.a ? ResultatPartie.VICTOIRE_A : ResultatPartie.VICTOIRE_B;
+        return new ResultatPartie(numero, ouverture, aCommence, resultat, game.getNbCoups(),
+                coupsJoues, temps, joueurs.noeuds.clone());
+    }
+
+    /**
+     * Joue les coups d'ouverture au hasard, parmi les colonnes encore libres.
+     *
+     * @return les colonnes jouées, ex: "3521"
+     */
+    private String jouerOuverture(Puissance4 game, SplittableRandom random) {
+        StringBuilder ouverture = new StringBuilder();
+        int[] libres = new int[Puissance4.NB_COL];
+        for(int i = 0; i < coupsOuverture && !game.isOver(); i++) {
+            int col = libres[random.nextInt(game.getAvailableMoves(libres))];
+            game.play(col);
+            ouverture.append(col);
+        }
+        return ouverture.toString();
+    }
+
+    private void ajouter(ResultatPartie resultat) {
+        if(resultat.getResultat() == ResultatPartie.VICTOIRE_A) victoiresA++;
+        else if(resultat.getResultat() == ResultatPartie.VICTOIRE_B) victoiresB++;
+        else nuls++;
+        for(int i = 0; i < 2; i++) {
+            coups[i] += resultat.getCoups(i);
+            tempsNanos[i] += resultat.getTempsNanos(i);
+            noeuds[i] += resultat.getNoeuds(i);
+        }
+    }
+
+    /**
+     * Le score de A est la moyenne des points de ses parties (1 par victoire, 0.5 par nul, 0 par défaite).
+     * Son intervalle de confiance à 95 % suit l'approximation normale, il est aussi traduit en différence d'Elo.
+     *
+     * @return le bilan des parties déjà jouées
+     */
+    public String bilan() {
+        int n = victoiresA + nuls + victoiresB;
+        if(n == 0) return "Aucune partie jouée";
+        double score = (victoiresA + 0.5 * nuls) / n;
+        double variance = (victoiresA * Math.pow(1 - score, 2) + nuls * Math.pow(0.5 - score, 2)
+                + victoiresB * Math.pow(score, 2)) / n;
+        double marge = Z_95 * Math.sqrt(variance / n);
+        StringBuilder bilan = new StringBuilder();
+        bilan.append(String.format("A = %s contre B = %s : %d parties, +%d =%d -%d%n", configA, configB, n,
+                victoiresA, nuls, victoiresB));
+        bilan.append(String.format("Score de A : %.1f %% ± %.1f %% (95 %%), Elo %+.0f [%+.0f, %+.0f]%n",
+                100 * score, 100 * marge, elo(score), elo(score - marge), elo(score + marge)));
+        String[] noms = {"A", "B"};
+        for(int i = 0; i < 2; i++) {
+            double secondes = tempsNanos[i] / 1e9;
+            bilan.append(String.format("%s : %d coups, %.2f ms par coup, %.0f noeuds/s%n", noms[i], coups[i],
+                    coups[i] == 0 ? 0 : tempsNanos[i] / 1e6 / coups[i], secondes == 0 ? 0 : noeuds[i] / secondes));
+        }
+        return bilan.toString();
+    }
+
+    /**
+     * @param score un score entre 0 et 1
+     * @return la différence d'Elo correspondant au score, infinie pour 0 ou 1
+     */
+    private static double elo(double score) {
+        double s = Math.max(0, Math.min(1, score));
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+    public int getVictoiresA() {
+        return victoiresA;
+    }
+
+    public int getNuls() {
+        return nuls;
+    }
+
+    public int getVictoiresB() {
+        return victoiresB;
+    }
+
+    /**
+     * Les deux ordinateurs d'un thread du pool et les noeuds qu'ils ont explorés pendant la partie en cours.
+     */
+    private static class Adversaires {
+        private final Computer a;
+        private final Computer b;
+        private final long[] noeuds = new long[2];
+
+        Adversaires(ConfigJoueur configA, ConfigJoueur configB) {
+            this.a = configA.creer("A", Piece.ROUGE);
+            this.b = configB.creer("B", Piece.JAUNE);
+            a.getIa().addSearchListener(stats -> noeuds[0] += stats.getNoeuds());
+            b.getIa().addSearchListener(stats -> noeuds[1] += stats.getNoeuds());
+        }
+
+        /**
+         * Oublie la partie précédente : chaque partie doit être jouée comme si elle était la 1ère.
+         */
+        void nouvellePartie() {
+            a.getIa().oublierRecherches();
+            b.getIa().oublierRecherches();
+            noeuds[0] = 0;
+            noeuds[1] = 0;
+        }
+    }
+
+    /**
+     * Nomme les threads du pool, pour les reconnaître dans un profiler.
+     */
+    private static class FabriqueThreads implements ThreadFactory {
+        private final AtomicInteger compteur = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "tournoi-" + compteur.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
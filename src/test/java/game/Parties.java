@@ -0,0 +1,34 @@
+package game;
+
+import player.Human;
+import player.Player;
+
+/**
+ * Positions fixes des tests, décrites par la suite des colonnes jouées depuis le plateau vide (le joueur 1 commence).
+ * Ce sont celles de bench.Positions, utilisées par les benchmarks.
+ *
+ * @author Xiumin LIN
+ */
+public final class Parties {
+    public static final String[] POSITIONS = {"", "33", "3542", "24561545", "10050113", "206066246264",
+            "6613104230450561364552", "50003124460552652215102524", "4613050650326000145311351452"};
+
+    private Parties() {
+    }
+
+    /**
+     * Crée une partie entre deux humains et y joue les coups donnés.
+     *
+     * @param coups la suite des colonnes jouées, ex: "3342"
+     * @return la partie dans l'état décrit
+     */
+    public static Puissance4 creer(String coups) {
+        Player p1 = new Human("Joueur 1", Piece.ROUGE);
+        Player p2 = new Human("Joueur 2", Piece.JAUNE);
+        Puissance4 game = new Puissance4(p1, p2, true);
+        for(char c : coups.toCharArray()) {
+            if(!game.play(c - '0')) throw new IllegalArgumentException("coup impossible : " + c + " dans " + coups);
+        }
+        return game;
+    }
+}
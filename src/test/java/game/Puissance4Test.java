@@ -0,0 +1,149 @@
+package game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * play/undo doivent rétablir exactement la position, hash de Zobrist compris, et le hash ne doit dépendre que
+ * de la position, pas de l'ordre des coups qui y mène.
+ *
+ * @author Xiumin LIN
+ */
+class Puissance4Test {
+
+    @Test
+    void undoRetablitLaPosition() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            Etat avant = new Etat(game);
+            for(int col = 0; col < Puissance4.NB_COL; col++) {
+                if(!game.play(col)) continue;
+                assertTrue(game.undo());
+                assertEquals(avant, new Etat(game), coups + " puis " + col);
+            }
+        }
+    }
+
+    @Test
+    void undoJusquAuPlateauVide() {
+        Etat vide = new Etat(Parties.creer(""));
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            while(game.getNbCoups() > 0) {
+                assertTrue(game.undo());
+            }
+            assertFalse(game.undo());
+            assertEquals(vide, new Etat(game), coups);
+        }
+    }
+
+    @Test
+    void hashIndependantDeLOrdreDesCoups() {
+        assertEquals(Parties.creer("3342").getHash(), Parties.creer("3243").getHash());
+        assertEquals(Parties.creer("012345").getHash(), Parties.creer("210543").getHash());
+        // mêmes colonnes, mais pas les mêmes pièces dans chaque colonne
+        assertTrue(Parties.creer("3342").getHash() != Parties.creer("3324").getHash());
+        // même plateau, mais pas le même joueur à jouer
+        assertTrue(Parties.creer("").getHash() != Parties.creer("3").getHash());
+    }
+
+    @Test
+    void checkIfWinMoveTesteLeProprietaireDeLaCase() {
+        // Rouge aligne 4 pièces dans la colonne 0, Jaune en a 3 dans la colonne 1
+        Puissance4 game = Parties.creer("0101010");
+        assertTrue(game.isOver());
+        assertTrue(game.checkIfWinMove(0, Puissance4.NB_ROW - 1));
+        assertFalse(game.checkIfWinMove(1, Puissance4.NB_ROW - 1));
+        assertFalse(game.checkIfWinMove(2, Puissance4.NB_ROW - 1));
+        assertFalse(game.checkIfWinMove(-1, 0));
+        // le résultat ne dépend pas du joueur dont c'est le tour
+        assertTrue(game.undo());
+        assertFalse(game.checkIfWinMove(0, Puissance4.NB_ROW - 1));
+        assertTrue(game.play(2));
+        assertFalse(game.checkIfWinMove(1, Puissance4.NB_ROW - 1));
+        assertTrue(game.play(1));
+        assertTrue(game.checkIfWinMove(1, Puissance4.NB_ROW - 1));
+        assertFalse(game.checkIfWinMove(0, Puissance4.NB_ROW - 1));
+    }
+
+    @Test
+    void copieIdentique() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            Puissance4 copie = new Puissance4(game);
+            assertEquals(new Etat(game), new Etat(copie), coups);
+            // la copie a son propre historique
+            if(copie.getNbCoups() > 0) {
+                copie.undo();
+                assertEquals(new Etat(Parties.creer(coups.substring(0, coups.length() - 1))), new Etat(copie), coups);
+            }
+        }
+    }
+
+    @Test
+    void undoApresVictoire() {
+        Puissance4 game = Parties.creer("010101");
+        Etat avant = new Etat(game);
+        assertTrue(game.play(0));
+        assertTrue(game.isOver());
+        assertEquals(Piece.ROUGE, game.getWinner().getPiece());
+        assertTrue(game.undo());
+        assertFalse(game.isOver());
+        assertEquals(avant, new Etat(game));
+    }
+
+    /**
+     * Ce qu'une recherche lit d'une position
+     */
+    private record Etat(long hash, long hashMiroir, int nbCoups, boolean p1Joue, boolean terminee, int[] coups,
+                        int[] evaluations) {
+        Etat(Puissance4 game) {
+            this(game.getHash(), game.getHashMiroir(), game.getNbCoups(), game.isP1Turn(), game.isOver(),
+                    coupsPossibles(game), evaluations(game));
+        }
+
+        private static int[] coupsPossibles(Puissance4 game) {
+            int[] coups = new int[Puissance4.NB_COL];
+            int nbCoups = game.getAvailableMoves(coups);
+            int[] possibles = new int[nbCoups];
+            System.arraycopy(coups, 0, possibles, 0, nbCoups);
+            return possibles;
+        }
+
+        private static int[] evaluations(Puissance4 game) {
+            ModeEvaluation mode = game.getModeEvaluation();
+            ModeEvaluation[] modes = ModeEvaluation.values();
+            int[] evaluations = new int[modes.length];
+            for(int i = 0; i < modes.length; i++) {
+                game.setModeEvaluation(modes[i]);
+                evaluations[i] = game.evaluation(game.getCurrentPlayer());
+            }
+            game.setModeEvaluation(mode);
+            return evaluations;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Etat autre)) return false;
+            return hash == autre.hash && hashMiroir == autre.hashMiroir && nbCoups == autre.nbCoups
+                    && p1Joue == autre.p1Joue && terminee == autre.terminee
+                    && Arrays.equals(coups, autre.coups) && Arrays.equals(evaluations, autre.evaluations);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+
+        @Override
+        public String toString() {
+            return "hash " + hash + ", " + nbCoups + " coups, coups possibles " + Arrays.toString(coups)
+                    + ", évaluations " + Arrays.toString(evaluations);
+        }
+    }
+}
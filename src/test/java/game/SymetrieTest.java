@@ -0,0 +1,77 @@
+package game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * La clé canonique (cf. Puissance4.getCleCanonique) doit être la même pour une position et sa symétrique,
+ * et coupCanonique doit traduire les coups de l'une à l'autre.
+ *
+ * @author Xiumin LIN
+ */
+class SymetrieTest {
+
+    /**
+     * @return la suite de coups symétrique, chaque colonne col devenant miroir(col)
+     */
+    private static String miroir(String coups) {
+        StringBuilder symetrique = new StringBuilder();
+        for(char c : coups.toCharArray()) {
+            symetrique.append(Puissance4.miroir(c - '0'));
+        }
+        return symetrique.toString();
+    }
+
+    @Test
+    void hashMiroirEstLeHashDeLaSymetrique() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            Puissance4 symetrique = Parties.creer(miroir(coups));
+            assertEquals(game.getHashMiroir(), symetrique.getHash(), coups);
+            assertEquals(game.getHash(), symetrique.getHashMiroir(), coups);
+            assertEquals(game.getCleCanonique(), symetrique.getCleCanonique(), coups);
+        }
+    }
+
+    @Test
+    void hashMiroirSuitPlayEtUndo() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            for(int col = 0; col < Puissance4.NB_COL; col++) {
+                if(!game.play(col)) continue;
+                assertEquals(Parties.creer(miroir(coups + col)).getHash(), game.getHashMiroir(), coups + col);
+                game.undo();
+            }
+            assertEquals(Parties.creer(miroir(coups)).getHash(), game.getHashMiroir(), coups);
+        }
+    }
+
+    @Test
+    void coupCanoniqueEstLeMemePourLaPositionEtSaSymetrique() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            Puissance4 symetrique = Parties.creer(miroir(coups));
+            // une position symétrique d'elle-même n'a pas de coup à traduire
+            if(game.getHash() == game.getHashMiroir()) continue;
+            for(int col = 0; col < Puissance4.NB_COL; col++) {
+                // le coup col d'une position et le coup miroir(col) de sa symétrique sont le même coup canonique
+                assertEquals(game.coupCanonique(col), symetrique.coupCanonique(Puissance4.miroir(col)), coups);
+                assertEquals(col, game.coupCanonique(game.coupCanonique(col)), coups);
+            }
+            assertEquals(-1, game.coupCanonique(-1));
+            assertNotEquals(game.isMiroir(), symetrique.isMiroir(), coups);
+        }
+    }
+
+    @Test
+    void positionsSymetriquesUniquementSiMiroir() {
+        // une position symétrique d'elle-même a le même hash que sa symétrique
+        Puissance4 centre = Parties.creer("3333");
+        assertEquals(centre.getHash(), centre.getHashMiroir());
+        // une position et sa symétrique différentes ont des hashs différents
+        Puissance4 gauche = Parties.creer("0");
+        assertNotEquals(gauche.getHash(), gauche.getHashMiroir());
+    }
+}
@@ -0,0 +1,115 @@
+package ia;
+
+import game.Parties;
+import game.Puissance4;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Le solveur de fin de partie doit trouver la valeur exacte des positions : on le compare à un negamax exhaustif
+ * sur des fins de partie de 6 à 12 cases vides.
+ *
+ * @author Xiumin LIN
+ */
+class EndgameSolverTest {
+    private static final int NB_CASES = Puissance4.NB_COL * Puissance4.NB_ROW;
+    /**
+     * Une partie sans coup gagnant ni menace immédiate pendant ses 30 premiers coups (celle d'EndgameBenchmark)
+     */
+    private static final String PARTIE = "556401532640455363342235403466";
+
+    @Test
+    void resoudreCommeLeNegamaxExhaustif() {
+        EndgameSolver solveur = new EndgameSolver();
+        verifier(solveur, Parties.creer(PARTIE));
+        // des fins de partie tirées au hasard, toujours les mêmes
+        Random random = new Random(1);
+        int nbPositions = 0;
+        while(nbPositions < 100) {
+            Puissance4 game = Parties.creer("");
+            if(!jouerAuHasard(game, random, NB_CASES - 6 - random.nextInt(6))) continue;
+            verifier(solveur, game);
+            nbPositions++;
+        }
+    }
+
+    private static void verifier(EndgameSolver solveur, Puissance4 game) {
+        long hash = game.getHash();
+        int attendu = negamaxExhaustif(game);
+        assertEquals(attendu, solveur.resoudre(game), "après " + game.getNbCoups() + " coups");
+        int[] coup = solveur.meilleurCoup(game);
+        assertEquals(attendu, coup[1], "après " + game.getNbCoups() + " coups");
+        // le coup choisi a bien la valeur annoncée
+        assertTrue(game.play(coup[0]));
+        int valeur = game.isOver() ? (game.getWinner() != null ? EndgameSolver.GAGNE : EndgameSolver.NUL)
+                : -negamaxExhaustif(game);
+        game.undo();
+        assertEquals(attendu, valeur, "coup " + coup[0] + " après " + game.getNbCoups() + " coups");
+        assertEquals(hash, game.getHash());
+    }
+
+    @Test
+    void resolutionInterrompue() {
+        EndgameSolver solveur = new EndgameSolver();
+        solveur.setConditionArret(() -> true);
+        Puissance4 game = Parties.creer(PARTIE.substring(0, 8));
+        long hash = game.getHash();
+        assertNull(solveur.meilleurCoup(game));
+        assertTrue(solveur.isInterrompu());
+        assertEquals(hash, game.getHash());
+    }
+
+    @Test
+    void iaInterrompueParDemanderArret() {
+        Ia ia = new Ia(Niveau.FORT);
+        ia.setSeuilFinDePartie(NB_CASES);
+        ia.demanderArret();
+        Puissance4 game = Parties.creer(PARTIE.substring(0, 8));
+        SearchStats stats = ia.rechercher(game, game.getCurrentPlayer());
+        assertEquals(-1, stats.getColonne());
+        assertTrue(ia.isInterrompue());
+    }
+
+    /**
+     * Joue des coups au hasard jusqu'au nombre de coups voulu, en évitant les coups qui laissent une victoire
+     * immédiate à l'adversaire.
+     *
+     * @return false si la partie a atteint une position avec un coup gagnant ou sans coup possible avant la fin
+     */
+    private static boolean jouerAuHasard(Puissance4 game, Random random, int nbCoups) {
+        while(game.getNbCoups() < nbCoups) {
+            if(game.findWinningMove() >= 0) return false;
+            int autorises = game.getCoupsNonPerdants();
+            if(autorises == 0) return false;
+            int coup;
+            do {
+                coup = random.nextInt(Puissance4.NB_COL);
+            } while((autorises & (1 << coup)) == 0);
+            game.play(coup);
+        }
+        return !game.isOver() && game.findWinningMove() < 0;
+    }
+
+    /**
+     * Negamax sans table ni alpha-beta jusqu'à la fin de la partie, qui ne s'arrête qu'au 1er coup gagnant
+     *
+     * @return GAGNE, NUL ou PERDU du point de vue du joueur qui a la main
+     */
+    private static int negamaxExhaustif(Puissance4 game) {
+        int meilleur = EndgameSolver.PERDU;
+        for(int coup = 0; coup < Puissance4.NB_COL; coup++) {
+            if(!game.play(coup)) continue;
+            int valeur = !game.isOver() ? -negamaxExhaustif(game)
+                    : game.getWinner() != null ? EndgameSolver.GAGNE : EndgameSolver.NUL;
+            game.undo();
+            meilleur = Math.max(meilleur, valeur);
+            if(meilleur == EndgameSolver.GAGNE) break;
+        }
+        return meilleur;
+    }
+}
@@ -0,0 +1,59 @@
+package ia;
+
+import game.Parties;
+import game.Puissance4;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Le moteur parallèle (cf. Ia.playAlphaBetaParallele) doit trouver le résultat de la recherche séquentielle,
+ * quel que soit le nombre de threads.
+ *
+ * @author Xiumin LIN
+ */
+class ParallelSearchTest {
+    private static final int[] THREADS = {1, 2, 4};
+
+    /**
+     * Sans table de transposition, les arbres sont les mêmes : même coup et même valeur
+     */
+    @Test
+    void sansTableCommeLaRechercheSequentielle() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            Ia sequentiel = new Ia(Niveau.MOYEN);
+            sequentiel.setTranspositionTable(null);
+            int[] attendu = sequentiel.playAlphaBeta(new Puissance4(game), game.getCurrentPlayer());
+            for(int nbThreads : THREADS) {
+                Ia parallele = new Ia(Niveau.MOYEN);
+                parallele.setTranspositionTable(null);
+                parallele.setMoteur(Moteur.PARALLELE, nbThreads);
+                int[] result = parallele.playAlphaBeta(new Puissance4(game), game.getCurrentPlayer());
+                assertArrayEquals(attendu, result, coups + " avec " + nbThreads + " threads");
+            }
+        }
+    }
+
+    /**
+     * Avec la table partagée entre les threads, comme dans le jeu : l'ordre dans lequel les threads remplissent
+     * la table peut changer le coup choisi entre deux coups de même valeur, mais pas la valeur.
+     */
+    @Test
+    void avecTableCommeLaRechercheSequentielle() {
+        for(String coups : Parties.POSITIONS) {
+            Puissance4 game = Parties.creer(coups);
+            int[] attendu = new Ia(Niveau.MOYEN).playAlphaBeta(new Puissance4(game), game.getCurrentPlayer());
+            for(int nbThreads : THREADS) {
+                Ia parallele = new Ia(Niveau.MOYEN);
+                parallele.setMoteur(Moteur.PARALLELE, nbThreads);
+                int[] result = parallele.playAlphaBeta(new Puissance4(game), game.getCurrentPlayer());
+                assertEquals(attendu[1], result[1], coups + " avec " + nbThreads + " threads");
+                assertTrue(game.play(result[0]), coups + " : coup " + result[0] + " impossible");
+                game.undo();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ia;
+
+import game.Parties;
+import game.Puissance4;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les victoires et défaites doivent être reconnues par tous les moteurs, qu'elles soient trouvées par la recherche
+ * ou par l'heuristique, et traduites dans l'échelle de l'heuristique (cf. Scores.versHeuristique).
+ *
+ * @author Xiumin LIN
+ */
+class ScoresTest {
+    private static final Moteur[] MOTEURS = {Moteur.SEQUENTIEL, Moteur.NEGAMAX, Moteur.PARALLELE, Moteur.LAZY_SMP};
+    /**
+     * Le joueur qui a la main gagne : tout de suite, ou en posant un alignement de 3 ouvert des deux côtés
+     */
+    private static final String[] GAGNEES = {"010101", "2636", "2030"};
+    /**
+     * Le joueur qui a la main perd : l'adversaire a un alignement de 3 ouvert des deux côtés
+     */
+    private static final String[] PERDUES = {"22334", "26364"};
+
+    @Test
+    void valeursExtremesDeLHeuristique() {
+        int finDePartie = 10;
+        assertTrue(Scores.estFinDePartie(Scores.depuisHeuristique(Integer.MAX_VALUE, finDePartie)));
+        assertTrue(Scores.estFinDePartie(Scores.depuisHeuristique(Integer.MIN_VALUE, finDePartie)));
+        assertTrue(Scores.estFinDePartie(Scores.depuisHeuristique(-Integer.MAX_VALUE, finDePartie)));
+        assertEquals(Integer.MAX_VALUE, Scores.versHeuristique(Scores.depuisHeuristique(Integer.MAX_VALUE, finDePartie)));
+        assertEquals(Integer.MIN_VALUE, Scores.versHeuristique(Scores.depuisHeuristique(-Integer.MAX_VALUE, finDePartie)));
+        // la victoire trouvée par l'heuristique est la plus lente possible
+        assertEquals(Scores.victoire(finDePartie), Scores.depuisHeuristique(Integer.MAX_VALUE, finDePartie));
+        assertEquals(900000, Scores.depuisHeuristique(900000, finDePartie));
+        assertEquals(-900000, Scores.depuisHeuristique(-900000, finDePartie));
+        assertFalse(Scores.estFinDePartie(Scores.depuisHeuristique(Scores.HEURISTIQUE_MAX, finDePartie)));
+    }
+
+    @Test
+    void tousLesMoteursReconnaissentLesPartiesGagnees() {
+        for(String coups : GAGNEES) {
+            for(Moteur moteur : MOTEURS) {
+                int score = chercher(coups, moteur);
+                assertTrue(Ia.estVictoire(score), coups + " avec " + moteur + " : " + score);
+            }
+        }
+    }
+
+    @Test
+    void tousLesMoteursReconnaissentLesPartiesPerdues() {
+        for(String coups : PERDUES) {
+            for(Moteur moteur : MOTEURS) {
+                int score = chercher(coups, moteur);
+                assertTrue(Ia.estDefaite(score), coups + " avec " + moteur + " : " + score);
+            }
+        }
+    }
+
+    /**
+     * A la profondeur 1, seule l'heuristique voit que la partie est gagnée (sa valeur dépasse HEURISTIQUE_MAX)
+     */
+    @Test
+    void victoireVueParLHeuristique() {
+        for(String coups : new String[]{"3526", "4625"}) {
+            for(Moteur moteur : new Moteur[]{Moteur.SEQUENTIEL, Moteur.NEGAMAX}) {
+                Puissance4 game = Parties.creer(coups);
+                Ia ia = new Ia(Niveau.MOYEN);
+                ia.setMoteur(moteur, 1);
+                int[] result = ia.playIterativeDeepening(game, game.getCurrentPlayer(), 1);
+                assertTrue(Ia.estVictoire(result[1]), coups + " avec " + moteur + " : " + result[1]);
+            }
+        }
+    }
+
+    /**
+     * Les moteurs d'accord sur les parties gagnées ou perdues, sur les positions fixes : l'un ne peut pas annoncer
+     * une victoire quand l'autre annonce une défaite, ni une victoire ou une défaite comme un score ordinaire s'il
+     * l'a trouvée avant la profondeur max
+     */
+    @Test
+    void negamaxEtAlphaBetaDAccord() {
+        for(String coups : Parties.POSITIONS) {
+            int alphaBeta = chercher(coups, Moteur.SEQUENTIEL);
+            int negamax = chercher(coups, Moteur.NEGAMAX);
+            assertFalse(Ia.estVictoire(alphaBeta) && Ia.estDefaite(negamax), coups);
+            assertFalse(Ia.estDefaite(alphaBeta) && Ia.estVictoire(negamax), coups);
+        }
+    }
+
+    private static int chercher(String coups, Moteur moteur) {
+        Puissance4 game = Parties.creer(coups);
+        Ia ia = new Ia(Niveau.MOYEN);
+        ia.setMoteur(moteur, 2);
+        return ia.playAlphaBeta(game, game.getCurrentPlayer())[1];
+    }
+}